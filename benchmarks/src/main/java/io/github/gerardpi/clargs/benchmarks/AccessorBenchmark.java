@@ -0,0 +1,59 @@
+package io.github.gerardpi.clargs.benchmarks;
+
+import io.github.gerardpi.clargs.Arguments;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+
+/**
+ * Measures reading every key back from a parsed command line.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AccessorBenchmark {
+    @Param({"10", "100", "1000"})
+    int parameterCount;
+
+    private List<BenchmarkKey> keys;
+    private Arguments arguments;
+
+    @Setup
+    public void setUp() {
+        keys = Specs.keys(parameterCount);
+        arguments = Specs.parameters(keys).parseArgs(Specs.commandLine(keys, parameterCount * 2));
+    }
+
+    @Benchmark
+    public void getArgument(Blackhole blackhole) {
+        for (BenchmarkKey key : keys) {
+            blackhole.consume(arguments.getArgument(key));
+        }
+    }
+
+    @Benchmark
+    public void getValue(Blackhole blackhole) {
+        for (BenchmarkKey key : keys) {
+            blackhole.consume(arguments.getValue(key));
+        }
+    }
+
+    @Benchmark
+    public void hasArgument(Blackhole blackhole) {
+        for (BenchmarkKey key : keys) {
+            blackhole.consume(arguments.hasArgument(key));
+        }
+    }
+}
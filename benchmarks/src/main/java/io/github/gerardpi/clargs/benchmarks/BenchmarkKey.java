@@ -0,0 +1,47 @@
+package io.github.gerardpi.clargs.benchmarks;
+
+import io.github.gerardpi.clargs.Key;
+
+/**
+ * A generated key: the short key is a sequence of letters, like {@code a} or {@code ab}, and the long key is
+ * {@code option} followed by the short key.
+ */
+final class BenchmarkKey implements Key {
+    private final String shortKey;
+    private final String longKey;
+
+    private BenchmarkKey(String shortKey, String longKey) {
+        this.shortKey = shortKey;
+        this.longKey = longKey;
+    }
+
+    static BenchmarkKey of(int index) {
+        String name = letters(index);
+        return new BenchmarkKey(name, "option" + name);
+    }
+
+    private static String letters(int index) {
+        StringBuilder name = new StringBuilder();
+        int remaining = index;
+        do {
+            name.insert(0, (char) ('a' + remaining % 26));
+            remaining = remaining / 26 - 1;
+        } while (remaining >= 0);
+        return name.toString();
+    }
+
+    @Override
+    public String getShortKey() {
+        return shortKey;
+    }
+
+    @Override
+    public String getLongKey() {
+        return longKey;
+    }
+
+    @Override
+    public String toString() {
+        return longKey;
+    }
+}
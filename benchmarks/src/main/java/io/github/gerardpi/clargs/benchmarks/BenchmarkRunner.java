@@ -0,0 +1,27 @@
+package io.github.gerardpi.clargs.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks with the GC profiler attached, so allocations per operation
+ * ({@code gc.alloc.rate.norm}) are reported next to the throughput.
+ * Accepts the regular JMH command line options, e.g. {@code java -jar target/benchmarks.jar ParseBenchmark -p tokenCount=1000}.
+ */
+public final class BenchmarkRunner {
+    private BenchmarkRunner() {
+        // Entry point only
+    }
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        new Runner(new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .addProfiler(GCProfiler.class)
+                .build())
+                .run();
+    }
+}
@@ -0,0 +1,50 @@
+package io.github.gerardpi.clargs.benchmarks;
+
+import io.github.gerardpi.clargs.Arguments;
+import io.github.gerardpi.clargs.Parser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+
+/**
+ * Measures the throughput of one {@link Parser} shared by several threads.
+ * Compare the score with the thread count, e.g. {@code -t 1}, {@code -t 4} and {@code -t 16}, to see how it scales.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class ConcurrentParseBenchmark {
+    @Param({"100"})
+    int parameterCount;
+
+    @Param({"100"})
+    int tokenCount;
+
+    private Parser parser;
+    private String[] args;
+
+    @Setup
+    public void setUp() {
+        List<BenchmarkKey> keys = Specs.keys(parameterCount);
+        parser = Specs.parameters(keys).getParser();
+        args = Specs.commandLine(keys, tokenCount);
+    }
+
+    @Benchmark
+    public Arguments parse() {
+        return parser.parse(args);
+    }
+}
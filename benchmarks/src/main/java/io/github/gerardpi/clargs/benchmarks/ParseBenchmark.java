@@ -0,0 +1,46 @@
+package io.github.gerardpi.clargs.benchmarks;
+
+import io.github.gerardpi.clargs.Arguments;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+
+/**
+ * Measures {@link Arguments#parseArgs(String[])} as the parameter count and the command line length grow.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParseBenchmark {
+    @Param({"10", "100", "1000"})
+    int parameterCount;
+
+    @Param({"10", "1000", "100000"})
+    int tokenCount;
+
+    private Arguments parameters;
+    private String[] args;
+
+    @Setup
+    public void setUp() {
+        List<BenchmarkKey> keys = Specs.keys(parameterCount);
+        parameters = Specs.parameters(keys);
+        args = Specs.commandLine(keys, tokenCount);
+    }
+
+    @Benchmark
+    public Arguments parseArgs() {
+        return parameters.parseArgs(args);
+    }
+}
@@ -0,0 +1,66 @@
+package io.github.gerardpi.clargs.benchmarks;
+
+import io.github.gerardpi.clargs.Argument;
+import io.github.gerardpi.clargs.Arguments;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Generates parameter specifications and command lines of a given size.
+ * Parameters cycle through the value types: no value, optional value and required value.
+ */
+final class Specs {
+    private Specs() {
+        // Utility class
+    }
+
+    static List<BenchmarkKey> keys(int parameterCount) {
+        List<BenchmarkKey> keys = new ArrayList<>(parameterCount);
+        for (int i = 0; i < parameterCount; i++) {
+            keys.add(BenchmarkKey.of(i));
+        }
+        return keys;
+    }
+
+    static Arguments parameters(List<BenchmarkKey> keys) {
+        Arguments.Builder builder = Arguments.builder();
+        for (int i = 0; i < keys.size(); i++) {
+            Argument.Builder parameter = Argument.builder()
+                    .setKey(keys.get(i))
+                    .setDescription("Generated parameter " + i);
+            switch (i % 3) {
+                case 1:
+                    parameter.setValueOptional();
+                    break;
+                case 2:
+                    parameter.setValueRequired();
+                    break;
+                default:
+                    break;
+            }
+            builder.add(parameter.build());
+        }
+        return builder.build();
+    }
+
+    /**
+     * @return A command line of {@code tokenCount} tokens that cycles through the keys, alternating short and long keys.
+     * A key is followed by a value exactly when its parameter has an optional or required value, so a command line
+     * that is not cut off in the middle parses without errors or positional arguments.
+     */
+    static String[] commandLine(List<BenchmarkKey> keys, int tokenCount) {
+        String[] args = new String[tokenCount];
+        int token = 0;
+        int i = 0;
+        while (token < tokenCount) {
+            BenchmarkKey key = keys.get(i % keys.size());
+            args[token++] = i % 2 == 0 ? "-" + key.getShortKey() : "--" + key.getLongKey();
+            if ((i % keys.size()) % 3 != 0 && token < tokenCount) {
+                args[token++] = "value" + i;
+            }
+            i++;
+        }
+        return args;
+    }
+}
@@ -0,0 +1,67 @@
+package io.github.gerardpi.clargs.benchmarks;
+
+import io.github.gerardpi.clargs.Arguments;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Measures rendering the usage text and the error text.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UsageBenchmark {
+    @Param({"10", "100", "1000"})
+    int parameterCount;
+
+    private Arguments parameters;
+    private Arguments argumentsWithErrors;
+
+    @Setup
+    public void setUp() {
+        List<BenchmarkKey> keys = Specs.keys(parameterCount);
+        parameters = Specs.parameters(keys);
+        String[] valuesMissing = new String[keys.size()];
+        for (int i = 0; i < keys.size(); i++) {
+            valuesMissing[i] = "-" + keys.get(i).getShortKey();
+        }
+        argumentsWithErrors = parameters.parseArgs(valuesMissing);
+    }
+
+    @Benchmark
+    public String displayValue() {
+        return parameters.displayValue();
+    }
+
+    @Benchmark
+    public String errorsDisplayValue() {
+        return argumentsWithErrors.errorsDisplayValue();
+    }
+
+    @Benchmark
+    public StringBuilder writeUsage() throws IOException {
+        StringBuilder out = new StringBuilder();
+        parameters.writeUsage(out);
+        return out;
+    }
+
+    @Benchmark
+    public StringBuilder writeErrors() throws IOException {
+        StringBuilder out = new StringBuilder();
+        argumentsWithErrors.writeErrors(out);
+        return out;
+    }
+}
@@ -6,15 +6,21 @@ public class Argument {
     private final Key key;
     private final boolean required;
     private final ValueType valueType;
+    private final ValueFormat valueFormat;
+    private final boolean multiValued;
     private final String description;
     private final String value;
+    private final long convertedValue;
     private final ArgumentError error;
 
-    private Argument(Key key, boolean required, ValueType valueType, String value, String description, ArgumentError error) {
+    private Argument(Key key, boolean required, ValueType valueType, ValueFormat valueFormat, boolean multiValued, String value, long convertedValue, String description, ArgumentError error) {
         this.key = key;
         this.required = required;
         this.valueType = valueType;
+        this.valueFormat = valueFormat;
+        this.multiValued = multiValued;
         this.value = value;
+        this.convertedValue = convertedValue;
         this.description = description;
         this.error = error;
     }
@@ -31,6 +37,18 @@ public class Argument {
         return valueType;
     }
 
+    public ValueFormat getValueFormat() {
+        return valueFormat;
+    }
+
+    /**
+     * @return Whether the key may be given more than once, with all values kept.
+     * @see Arguments#getValues(Key)
+     */
+    public boolean isMultiValued() {
+        return multiValued;
+    }
+
     public boolean isSuccess() {
         return this.error == null;
     }
@@ -47,6 +65,70 @@ public class Argument {
         return value;
     }
 
+    /**
+     * @return The value, as converted once while parsing.
+     * @throws IllegalStateException When the value format is not {@link ValueFormat#INT} or there is no value.
+     */
+    public int getIntValue() {
+        checkConvertedValue(ValueFormat.INT);
+        return (int) convertedValue;
+    }
+
+    /**
+     * @return The value, as converted once while parsing.
+     * @throws IllegalStateException When the value format is not {@link ValueFormat#INT} or {@link ValueFormat#LONG}, or there is no value.
+     */
+    public long getLongValue() {
+        checkConvertedValue(ValueFormat.LONG);
+        return convertedValue;
+    }
+
+    /**
+     * @return The value, as converted once while parsing.
+     * @throws IllegalStateException When the value format is not {@link ValueFormat#DOUBLE} or there is no value.
+     */
+    public double getDoubleValue() {
+        checkConvertedValue(ValueFormat.DOUBLE);
+        return Double.longBitsToDouble(convertedValue);
+    }
+
+    private void checkConvertedValue(ValueFormat expectedValueFormat) {
+        if (value == null || error != null) {
+            throw noValueOfFormat(key, expectedValueFormat);
+        }
+        checkValueFormat(this, expectedValueFormat);
+    }
+
+    /**
+     * @throws IllegalStateException When the value format of the parameter is not the expected one,
+     * where a {@link ValueFormat#LONG} is expected, {@link ValueFormat#INT} is accepted as well.
+     */
+    static void checkValueFormat(Argument parameter, ValueFormat expectedValueFormat) {
+        ValueFormat valueFormat = parameter.valueFormat;
+        if (valueFormat != expectedValueFormat && !(expectedValueFormat == ValueFormat.LONG && valueFormat == ValueFormat.INT)) {
+            throw noValueOfFormat(parameter.key, expectedValueFormat);
+        }
+    }
+
+    /**
+     * @return The value converted according to the value format, or {@code 0} when there is no value.
+     * @throws IllegalArgumentException When the value can not be converted.
+     */
+    private static long convert(Key key, ValueFormat valueFormat, String value) {
+        if (value == null) {
+            return 0L;
+        }
+        try {
+            return valueFormat.convert(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + valueFormat.getDisplayValue() + " value '" + value + "' for argument '" + key + "'", e);
+        }
+    }
+
+    private static IllegalStateException noValueOfFormat(Key key, ValueFormat valueFormat) {
+        return new IllegalStateException("There is no " + valueFormat.getDisplayValue() + " value for argument '" + key + "'");
+    }
+
     public boolean matches(String key) {
         return this.key.matches(key);
     }
@@ -59,41 +141,163 @@ public class Argument {
         return key;
     }
 
+    /**
+     * @throws IllegalArgumentException When the value can not be converted according to the value format.
+     */
     public Argument withValue(String value) {
-        return new Argument(key, required, valueType, value, description, null);
+        return withValue(value, convert(key, valueFormat, value));
+    }
+
+    /**
+     * @param convertedValue The value converted according to the value format, see {@link ValueFormat#convert(String)}.
+     */
+    Argument withValue(String value, long convertedValue) {
+        return new Argument(key, required, valueType, valueFormat, multiValued, value, convertedValue, description, null);
     }
+
     public Argument withError(ArgumentError error) {
-        return new Argument(key, required, valueType, value, description, error);
+        return new Argument(key, required, valueType, valueFormat, multiValued, value, convertedValue, description, error);
     }
 
     public Argument withMissingArgumentError() {
-        return withError(new ArgumentError(ArgumentError.Type.MISSING_ARGUMENT, "Missing argument " + this.displayValue()));
+        return withError(ArgumentError.Type.MISSING_ARGUMENT);
     }
 
     public Argument withMissingArgumentValueError() {
-        return withError(new ArgumentError(ArgumentError.Type.MISSING_ARGUMENT_VALUE, "Missing argument value " + this.displayValue()));
+        return withError(ArgumentError.Type.MISSING_ARGUMENT_VALUE);
     }
 
     public Argument withNoArgumentValueExpectedError() {
-        return withError(new ArgumentError(ArgumentError.Type.NO_ARGUMENT_VALUE_EXPECTED, "No argument value expected " + this.displayValue()));
+        return withError(ArgumentError.Type.NO_ARGUMENT_VALUE_EXPECTED);
+    }
+
+    public Argument withInvalidArgumentValueError() {
+        return withError(ArgumentError.Type.INVALID_ARGUMENT_VALUE);
+    }
+
+    /**
+     * @return This parameter with an error of the given type, of which the message is formatted when it is asked for.
+     */
+    Argument withError(ArgumentError.Type type) {
+        return withError(new ArgumentError(type, this));
+    }
+
+    /**
+     * @param detail See {@link ArgumentError}; {@code null} for the display value of this parameter.
+     */
+    Argument withError(ArgumentError.Type type, String detail) {
+        return withError(new ArgumentError(type, this, detail));
+    }
+
+    /**
+     * @return An argument for a token that matches no parameter, with an {@link ArgumentError.Type#UNKNOWN_ARGUMENT} error
+     * for a token that looks like a key, or an {@link ArgumentError.Type#UNREADABLE_ARGUMENT_FILE} error for an argument file.
+     */
+    static Argument unknown(UnknownKey key, ArgumentError.Type type) {
+        Argument argument = new Argument(key, false, ValueType.NO_VALUE, ValueFormat.STRING, false, null, 0L, null, null);
+        String detail = type == ArgumentError.Type.UNREADABLE_ARGUMENT_FILE ? key.getToken().substring(1) : null;
+        return argument.withError(new ArgumentError(type, argument, detail));
     }
 
-    static class ArgumentError {
-        static enum Type {
-            MISSING_ARGUMENT_VALUE,
-            MISSING_ARGUMENT,
-            NO_ARGUMENT_VALUE_EXPECTED
+    public static class ArgumentError {
+        public static enum Type {
+            MISSING_ARGUMENT_VALUE("Missing argument value "),
+            MISSING_ARGUMENT("Missing argument "),
+            NO_ARGUMENT_VALUE_EXPECTED("No argument value expected "),
+            INVALID_ARGUMENT_VALUE("Invalid argument value "),
+            /**
+             * A token looks like a key, but matches no parameter.
+             */
+            UNKNOWN_ARGUMENT("Unknown argument "),
+            /**
+             * Arguments are given together that are declared mutually exclusive.
+             */
+            CONFLICTING_ARGUMENTS("Conflicting arguments: "),
+            /**
+             * An argument is given without the arguments it requires.
+             */
+            MISSING_REQUIRED_ARGUMENTS("Missing arguments: "),
+            /**
+             * None of a group of arguments of which at least one is required is given.
+             */
+            MISSING_ONE_OF_ARGUMENTS("Missing arguments: "),
+            /**
+             * A token {@code @path} names an argument file that can not be read.
+             * @see Arguments.Builder#setArgumentFileExpansion(boolean)
+             */
+            UNREADABLE_ARGUMENT_FILE("Can not read argument file ");
+            private final String messagePrefix;
+
+            Type(String messagePrefix) {
+                this.messagePrefix = messagePrefix;
+            }
+
+            /**
+             * @return The start of the message, which is followed by the display value of the parameter,
+             * or for {@link #UNKNOWN_ARGUMENT} by the token and suggestions, or for {@link #UNREADABLE_ARGUMENT_FILE} by the path,
+             * or for a violated rule by a description of the rule.
+             */
+            public String getMessagePrefix() {
+                return messagePrefix;
+            }
         }
-        private final String message;
         private final Type type;
+        private final Argument parameter;
+        private final String detail;
+        private String message;
 
         public ArgumentError(Type type, String message) {
             this.type = type;
+            this.parameter = null;
+            this.detail = null;
             this.message = message;
         }
 
+        /**
+         * The message is only formatted when it is asked for, since most errors are counted or inspected by type
+         * rather than displayed.
+         */
+        ArgumentError(Type type, Argument parameter) {
+            this(type, parameter, null);
+        }
+
+        /**
+         * @param detail Follows the message prefix instead of the display value of the parameter, e.g. the description of a violated rule.
+         */
+        ArgumentError(Type type, Argument parameter, String detail) {
+            this.type = type;
+            this.parameter = parameter;
+            this.detail = detail;
+        }
+
         public String getMessage() {
-            return message;
+            // Racy single-check: formatting twice is harmless, and a String is safely published.
+            String result = message;
+            if (result == null) {
+                result = type.getMessagePrefix() + (detail != null ? detail
+                        : type == Type.UNKNOWN_ARGUMENT ? unknownDisplayValue() : parameter.displayValue());
+                message = result;
+            }
+            return result;
+        }
+
+        private String unknownDisplayValue() {
+            StringBuilder displayValue = new StringBuilder(parameter.getKey().toString());
+            List<String> suggestions = getSuggestions();
+            for (int i = 0; i < suggestions.size(); i++) {
+                displayValue.append(i == 0 ? "; did you mean " : " or ").append(suggestions.get(i));
+            }
+            return suggestions.isEmpty() ? displayValue.toString() : displayValue.append('?').toString();
+        }
+
+        /**
+         * @return For an {@link Type#UNKNOWN_ARGUMENT} error, the keys that are most similar to the token, like {@code --kaas} for {@code --kaaz}.
+         */
+        public List<String> getSuggestions() {
+            if (type == Type.UNKNOWN_ARGUMENT && parameter != null && parameter.getKey() instanceof UnknownKey) {
+                return ((UnknownKey) parameter.getKey()).getSuggestions();
+            }
+            return Collections.emptyList();
         }
 
         public Type getType() {
@@ -105,7 +309,7 @@ public class Argument {
             return new StringJoiner(", ",
                     ArgumentError.class.getSimpleName() + "[", "]")
                     .add("type=" + type)
-                    .add("message=" + message)
+                    .add("message=" + getMessage())
                     .toString();
         }
     }
@@ -117,6 +321,8 @@ public class Argument {
                 .add("key=" + key)
                 .add("required=" + required)
                 .add("valueType=" + valueType)
+                .add("valueFormat=" + valueFormat)
+                .add("multiValued=" + multiValued)
                 .add("description='" + description + "'")
                 .add("value='" + value + "'")
                 .add("error=" + error)
@@ -124,15 +330,19 @@ public class Argument {
     }
 
     public String displayValue() {
-        return new StringJoiner("; ", "", "")
-                .add("-" + key.getShortKey() + " or --" + getKey().getLongKey())
-                .add("required: " + (required ? "yes" : "no"))
-                .add(valueType.expectsValue() ? "a value is " + valueType.getDisplayValue() : "no value is expected")
-                .add("description: '" + description + "'")
-                .toString();
+        StringBuilder displayValue = new StringBuilder()
+                .append(Usage.keys(key, " or "))
+                .append("; required: ").append(required ? "yes" : "no")
+                .append("; ");
+        if (valueType.expectsValue()) {
+            displayValue.append("a value is ").append(valueType.getDisplayValue()).append(valueFormat.getDisplaySuffix());
+        } else {
+            displayValue.append("no value is expected");
+        }
+        return displayValue.append("; description: '").append(description).append('\'').toString();
     }
 
-    static enum ValueType {
+    public static enum ValueType {
         NO_VALUE("none"),
         OPTIONAL_VALUE("optional"),
         REQUIRED_VALUE("required");
@@ -154,10 +364,53 @@ public class Argument {
         }
     }
 
+    /**
+     * How a value is converted while parsing. Numeric values are stored in primitive form,
+     * so reading them does not parse or box again.
+     */
+    public static enum ValueFormat {
+        STRING("text"),
+        INT("integer"),
+        LONG("long integer"),
+        DOUBLE("decimal number");
+        private final String displayValue;
+
+        ValueFormat(String displayValue) {
+            this.displayValue = displayValue;
+        }
+
+        /**
+         * @return The value as a primitive, with a double represented by its raw long bits.
+         * @throws NumberFormatException When the value can not be converted.
+         */
+        public long convert(String value) {
+            switch (this) {
+                case INT:
+                    return Integer.parseInt(value);
+                case LONG:
+                    return Long.parseLong(value);
+                case DOUBLE:
+                    return Double.doubleToRawLongBits(Double.parseDouble(value));
+                default:
+                    return 0L;
+            }
+        }
+
+        public String getDisplayValue() {
+            return displayValue;
+        }
+
+        String getDisplaySuffix() {
+            return this == STRING ? "" : " (" + displayValue + ")";
+        }
+    }
+
     public static class Builder {
         private Key key;
         private boolean required;
         private ValueType valueType = ValueType.NO_VALUE;
+        private ValueFormat valueFormat = ValueFormat.STRING;
+        private boolean multiValued;
         private String description;
         private String value;
 
@@ -184,6 +437,24 @@ public class Argument {
             return this;
         }
 
+        /**
+         * Declares how a value given for this parameter is converted while parsing.
+         * A value that can not be converted is reported as {@link ArgumentError.Type#INVALID_ARGUMENT_VALUE}.
+         */
+        public Builder setValueFormat(ValueFormat valueFormat) {
+            this.valueFormat = valueFormat;
+            return this;
+        }
+
+        /**
+         * Declares that the key may be given more than once, like {@code -I a -I b}.
+         * All values are kept together, and only the first occurrence results in an {@link Argument}.
+         */
+        public Builder setMultiValued(boolean multiValued) {
+            this.multiValued = multiValued;
+            return this;
+        }
+
         public Builder setDescription(String description) {
             this.description = description;
             return this;
@@ -194,8 +465,12 @@ public class Argument {
             return this;
         }
 
+        /**
+         * @throws IllegalArgumentException When the value can not be converted according to the value format.
+         */
         public Argument build() {
-            return new Argument(key, required, valueType, value, description, null);
+            long convertedValue = convert(key, valueFormat, value);
+            return new Argument(key, required, valueType, valueFormat, multiValued, value, convertedValue, description, null);
         }
     }
 }
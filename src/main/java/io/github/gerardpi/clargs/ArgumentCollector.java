@@ -0,0 +1,119 @@
+package io.github.gerardpi.clargs;
+
+import java.util.List;
+import java.util.function.UnaryOperator;
+
+/**
+ * Builds the table of arguments that {@link Arguments#parseArgs(String[])} returns.
+ */
+final class ArgumentCollector implements ArgumentVisitor {
+    private final List<Argument> parameters;
+    private final KeyIndex keyIndex;
+    private final ArgumentTable table;
+    private final UnaryOperator<String> valueInterner;
+
+    ArgumentCollector(List<Argument> parameters, KeyIndex keyIndex) {
+        this(parameters, keyIndex, ValueInterner.NONE);
+    }
+
+    /**
+     * @param valueInterner Applied to each value before it is kept, to share equal values between parse results.
+     */
+    ArgumentCollector(List<Argument> parameters, KeyIndex keyIndex, UnaryOperator<String> valueInterner) {
+        this(parameters, keyIndex, new ArgumentTable(parameters.size()), valueInterner);
+    }
+
+    /**
+     * @param table Added to, so a {@link ParseSession} can keep one table between parses.
+     */
+    ArgumentCollector(List<Argument> parameters, KeyIndex keyIndex, ArgumentTable table, UnaryOperator<String> valueInterner) {
+        this.parameters = parameters;
+        this.keyIndex = keyIndex;
+        this.table = table;
+        this.valueInterner = valueInterner;
+    }
+
+    @Override
+    public void onArgument(Key key, String parsedValue) {
+        String value = parsedValue == null ? null : valueInterner.apply(parsedValue);
+        int parameterIndex = keyIndex.indexOf(key);
+        if (value == null) {
+            if (!parameters.get(parameterIndex).isMultiValued() || !table.hasArgument(parameterIndex)) {
+                table.add(parameterIndex, null, 0L);
+            }
+        } else if (!appendValue(parameterIndex, value)) {
+            table.add(parameterIndex, value, 0L);
+        }
+    }
+
+    @Override
+    public void onIntArgument(Key key, String value, int convertedValue) {
+        addConvertedValue(key, value, convertedValue);
+    }
+
+    @Override
+    public void onLongArgument(Key key, String value, long convertedValue) {
+        addConvertedValue(key, value, convertedValue);
+    }
+
+    @Override
+    public void onDoubleArgument(Key key, String value, double convertedValue) {
+        addConvertedValue(key, value, Double.doubleToRawLongBits(convertedValue));
+    }
+
+    private void addConvertedValue(Key key, String parsedValue, long convertedValue) {
+        String value = valueInterner.apply(parsedValue);
+        int parameterIndex = keyIndex.indexOf(key);
+        if (!appendValue(parameterIndex, value)) {
+            table.add(parameterIndex, value, convertedValue);
+        }
+    }
+
+    /**
+     * For a multi-valued parameter, the first occurrence is added as argument and the values of all occurrences
+     * are appended to one value list, so repeating the key does not add more arguments.
+     *
+     * @return Whether an argument for the parameter was added before, with or without a value,
+     * so only the value needed to be appended.
+     */
+    private boolean appendValue(int parameterIndex, String value) {
+        if (!parameters.get(parameterIndex).isMultiValued()) {
+            return false;
+        }
+        table.appendValue(parameterIndex, value);
+        return table.hasArgument(parameterIndex);
+    }
+
+    @Override
+    public void onValueSource(Key key, ValueSource source) {
+        table.setValueSource(keyIndex.indexOf(key), source);
+    }
+
+    @Override
+    public void onPositional(String value) {
+        table.addPositional(valueInterner.apply(value));
+    }
+
+    @Override
+    public void onPositionals(List<String> values) {
+        table.addPositionals(values);
+    }
+
+    @Override
+    public void onError(Key key, Argument.ArgumentError.Type type) {
+        if (key instanceof UnknownKey) {
+            table.addUnknown(type, ((UnknownKey) key).getToken());
+        } else {
+            table.addError(keyIndex.indexOf(key), type, null);
+        }
+    }
+
+    @Override
+    public void onConstraintViolation(Key key, Argument.ArgumentError.Type type, String description) {
+        table.addError(keyIndex.indexOf(key), type, description);
+    }
+
+    ArgumentTable getTable() {
+        return table;
+    }
+}
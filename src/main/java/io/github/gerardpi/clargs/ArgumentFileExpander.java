@@ -0,0 +1,125 @@
+package io.github.gerardpi.clargs;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Paths;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Replaces each {@code @path} token by the tokens read from that argument file, while iterating.
+ * Tokens read from an argument file are not expanded again, and neither are the tokens after {@code --}.
+ * A token that starts with {@code @@} stands for itself without the first {@code @}, like {@code @handle} for {@code @@handle}.
+ * An argument file that can not be read is reported as {@link Argument.ArgumentError.Type#UNREADABLE_ARGUMENT_FILE},
+ * and parsing goes on with the next token.
+ * An argument file is closed when its last token is read, or else when the expander is closed.
+ */
+final class ArgumentFileExpander implements Iterator<String>, Closeable {
+    private final Iterator<String> args;
+    private final ArgumentVisitor visitor;
+    private final Parser parser;
+    private ArgumentFileReader argumentFile;
+    private String argumentFileToken;
+    private String pending;
+    private boolean endOfOptions;
+
+    /**
+     * @param visitor Receives the errors for argument files that can not be read.
+     * @param parser Makes the keys of these errors, see {@link UnknownKey}.
+     */
+    ArgumentFileExpander(Iterator<String> args, ArgumentVisitor visitor, Parser parser) {
+        this.args = args;
+        this.visitor = visitor;
+        this.parser = parser;
+    }
+
+    static boolean isArgumentFile(String arg) {
+        return arg.length() > 1 && arg.charAt(0) == '@' && arg.charAt(1) != '@';
+    }
+
+    static boolean isEscaped(String arg) {
+        return arg.length() > 1 && arg.charAt(0) == '@' && arg.charAt(1) == '@';
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (true) {
+            if (argumentFile != null) {
+                if (hasNextInArgumentFile()) {
+                    return true;
+                }
+                argumentFile = null;
+            }
+            if (pending != null) {
+                return true;
+            }
+            if (!args.hasNext()) {
+                return false;
+            }
+            String arg = args.next();
+            if (endOfOptions) {
+                pending = arg;
+            } else if (isArgumentFile(arg)) {
+                openArgumentFile(arg);
+            } else {
+                pending = isEscaped(arg) ? arg.substring(1) : arg;
+            }
+        }
+    }
+
+    private void openArgumentFile(String arg) {
+        try {
+            argumentFile = ArgumentFileReader.open(Paths.get(arg.substring(1)));
+            argumentFileToken = arg;
+        } catch (UncheckedIOException | InvalidPathException e) {
+            visitor.onError(new UnknownKey(arg, parser), Argument.ArgumentError.Type.UNREADABLE_ARGUMENT_FILE);
+        }
+    }
+
+    private boolean hasNextInArgumentFile() {
+        try {
+            return argumentFile.hasNext();
+        } catch (UncheckedIOException e) {
+            visitor.onError(new UnknownKey(argumentFileToken, parser), Argument.ArgumentError.Type.UNREADABLE_ARGUMENT_FILE);
+            close();
+            return false;
+        }
+    }
+
+    @Override
+    public String next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        String arg;
+        if (argumentFile != null) {
+            arg = argumentFile.next();
+        } else {
+            arg = pending;
+            pending = null;
+        }
+        if (Tokens.isEndOfOptions(arg)) {
+            endOfOptions = true;
+        }
+        return arg;
+    }
+
+    /**
+     * Closes the argument file that is being read, if any, for when parsing stops before its last token.
+     */
+    @Override
+    public void close() {
+        if (argumentFile == null) {
+            return;
+        }
+        try {
+            argumentFile.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Can not close argument file", e);
+        } finally {
+            argumentFile = null;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package io.github.gerardpi.clargs;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Reads the tokens of an argument file one at a time. Tokens are UTF-8 encoded and delimited by newlines
+ * or NUL characters; empty lines are skipped. The file is memory mapped in windows of limited size,
+ * so memory use does not depend on the size of the file.
+ */
+final class ArgumentFileReader implements Iterator<String>, Closeable {
+    static final int DEFAULT_WINDOW_SIZE = 4 * 1024 * 1024;
+
+    private final Path path;
+    private final FileChannel channel;
+    private final long size;
+    private final int windowSize;
+    private MappedByteBuffer window;
+    private long windowStart;
+    private long position;
+    private String next;
+
+    private ArgumentFileReader(Path path, FileChannel channel, int windowSize) throws IOException {
+        this.path = path;
+        this.channel = channel;
+        this.size = channel.size();
+        this.windowSize = windowSize;
+    }
+
+    static ArgumentFileReader open(Path path) {
+        return open(path, DEFAULT_WINDOW_SIZE);
+    }
+
+    static ArgumentFileReader open(Path path, int windowSize) {
+        try {
+            return new ArgumentFileReader(path, FileChannel.open(path, StandardOpenOption.READ), windowSize);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Can not read argument file " + path, e);
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null) {
+            next = readToken();
+        }
+        return next != null;
+    }
+
+    @Override
+    public String next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        String token = next;
+        next = null;
+        return token;
+    }
+
+    private String readToken() {
+        try {
+            while (position < size && isDelimiter(byteAt(position, position + 1))) {
+                position++;
+            }
+            if (position >= size) {
+                close();
+                return null;
+            }
+            long start = position;
+            while (position < size && !isDelimiter(byteAt(start, position + 1))) {
+                position++;
+            }
+            return decode(start, position);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Can not read argument file " + path, e);
+        }
+    }
+
+    /**
+     * @return The byte at {@code end - 1}, mapping a new window that starts at {@code start} when the current one does not contain it.
+     */
+    private byte byteAt(long start, long end) throws IOException {
+        if (window == null || start < windowStart || end > windowStart + window.limit()) {
+            long length = Math.min(size - start, Math.max(windowSize, 2 * (end - start)));
+            window = channel.map(FileChannel.MapMode.READ_ONLY, start, length);
+            windowStart = start;
+        }
+        return window.get((int) (end - 1 - windowStart));
+    }
+
+    private String decode(long start, long end) throws IOException {
+        byte[] bytes = new byte[(int) (end - start)];
+        byteAt(start, end);
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = window.get((int) (start - windowStart) + i);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static boolean isDelimiter(byte b) {
+        return b == '\n' || b == '\r' || b == 0;
+    }
+
+    @Override
+    public void close() throws IOException {
+        window = null;
+        channel.close();
+    }
+}
@@ -0,0 +1,293 @@
+package io.github.gerardpi.clargs;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The result of parsing a command line, as parallel arrays with one entry per argument found:
+ * the index of the parameter, the value, the converted value and the error, with the detail of its message.
+ * Everything else, like the key and description, is read from the shared parameters when needed,
+ * so a parse allocates a few arrays instead of an {@link Argument} per argument.
+ * <p>
+ * An unknown key, or an argument file that can not be read, has parameter index {@link KeyIndex#NOT_FOUND}, and the token as detail.
+ * An error has no value, so the value accessors of {@link Arguments} never return the detail of an error.
+ */
+final class ArgumentTable {
+    private static final int INITIAL_CAPACITY = 8;
+    private static final byte NO_ERROR = 0;
+    private static final Argument.ArgumentError.Type[] ERROR_TYPES = Argument.ArgumentError.Type.values();
+
+    private final int[] firstByParameter;
+    // The index of the first argument without error for each parameter, or -1.
+    private final int[] firstArgumentByParameter;
+    private int size;
+    private int errorCount;
+    private int[] parameterIndexes = new int[INITIAL_CAPACITY];
+    private String[] values = new String[INITIAL_CAPACITY];
+    private long[] convertedValues = new long[INITIAL_CAPACITY];
+    // The ordinal of the error type plus one, or NO_ERROR.
+    private byte[] errorCodes = new byte[INITIAL_CAPACITY];
+    // Only allocated for the first error with a detail, and only grown as far as the last one.
+    private String[] details;
+    // Only allocated when a parameter needs them.
+    private ValueList[] valuesByParameter;
+    // The parameter index of each value appended to valuesByParameter, in order, so they can be truncated.
+    private int[] appendedParameterIndexes;
+    private int appendedCount;
+    private ValueSource[] valueSourcesByParameter;
+    private ValueList positionals;
+    // The tokens after "--", as handed over, unless positionals were found before them.
+    private List<String> remainingPositionals;
+
+    ArgumentTable(int parameterCount) {
+        this.firstByParameter = new int[parameterCount];
+        Arrays.fill(firstByParameter, -1);
+        this.firstArgumentByParameter = new int[parameterCount];
+        Arrays.fill(firstArgumentByParameter, -1);
+    }
+
+    void add(int parameterIndex, String value, long convertedValue) {
+        add(parameterIndex, value, convertedValue, NO_ERROR);
+    }
+
+    /**
+     * @param detail See {@link Argument.ArgumentError}; may be {@code null}.
+     */
+    void addError(int parameterIndex, Argument.ArgumentError.Type type, String detail) {
+        add(parameterIndex, null, 0L, (byte) (type.ordinal() + 1));
+        errorCount++;
+        if (detail != null) {
+            if (details == null || details.length < parameterIndexes.length) {
+                details = details == null ? new String[parameterIndexes.length] : Arrays.copyOf(details, parameterIndexes.length);
+            }
+            details[size - 1] = detail;
+        }
+    }
+
+    void addUnknown(Argument.ArgumentError.Type type, String token) {
+        addError(KeyIndex.NOT_FOUND, type, token);
+    }
+
+    private void add(int parameterIndex, String value, long convertedValue, byte errorCode) {
+        if (size == parameterIndexes.length) {
+            int capacity = size * 2;
+            parameterIndexes = Arrays.copyOf(parameterIndexes, capacity);
+            values = Arrays.copyOf(values, capacity);
+            convertedValues = Arrays.copyOf(convertedValues, capacity);
+            errorCodes = Arrays.copyOf(errorCodes, capacity);
+        }
+        if (parameterIndex != KeyIndex.NOT_FOUND && firstByParameter[parameterIndex] < 0) {
+            firstByParameter[parameterIndex] = size;
+        }
+        if (parameterIndex != KeyIndex.NOT_FOUND && errorCode == NO_ERROR && firstArgumentByParameter[parameterIndex] < 0) {
+            firstArgumentByParameter[parameterIndex] = size;
+        }
+        parameterIndexes[size] = parameterIndex;
+        values[size] = value;
+        convertedValues[size] = convertedValue;
+        errorCodes[size] = errorCode;
+        size++;
+    }
+
+    /**
+     * Appends a value of a multi-valued parameter.
+     */
+    void appendValue(int parameterIndex, String value) {
+        if (valuesByParameter == null) {
+            valuesByParameter = new ValueList[firstByParameter.length];
+            appendedParameterIndexes = new int[INITIAL_CAPACITY];
+        }
+        ValueList parameterValues = valuesByParameter[parameterIndex];
+        if (parameterValues == null) {
+            parameterValues = new ValueList();
+            valuesByParameter[parameterIndex] = parameterValues;
+        }
+        parameterValues.append(value);
+        if (appendedCount == appendedParameterIndexes.length) {
+            appendedParameterIndexes = Arrays.copyOf(appendedParameterIndexes, appendedCount * 2);
+        }
+        appendedParameterIndexes[appendedCount++] = parameterIndex;
+    }
+
+    void setValueSource(int parameterIndex, ValueSource valueSource) {
+        if (valueSourcesByParameter == null) {
+            valueSourcesByParameter = new ValueSource[firstByParameter.length];
+        }
+        valueSourcesByParameter[parameterIndex] = valueSource;
+    }
+
+    void addPositional(String value) {
+        if (positionals == null) {
+            positionals = new ValueList();
+        }
+        positionals.append(value);
+    }
+
+    /**
+     * Keeps the tokens after {@code --} as given, or appends them to the positional arguments before them when there are any.
+     */
+    void addPositionals(List<String> values) {
+        if (positionals == null || positionals.isEmpty()) {
+            remainingPositionals = values;
+            return;
+        }
+        for (String value : values) {
+            positionals.append(value);
+        }
+    }
+
+    /**
+     * @return The positional arguments, read-only.
+     */
+    List<String> getPositionals() {
+        if (positionals != null && !positionals.isEmpty()) {
+            return positionals;
+        }
+        return remainingPositionals == null ? Collections.<String>emptyList() : remainingPositionals;
+    }
+
+    /**
+     * @return The current end of the table, to {@link #truncate(Mark)} it to later.
+     */
+    Mark mark() {
+        return new Mark(size, appendedCount, positionals == null ? 0 : positionals.size());
+    }
+
+    /**
+     * Removes everything added after the mark, which must have been taken between tokens,
+     * so before anything was taken from the value sources.
+     */
+    void truncate(Mark mark) {
+        for (int i = mark.size; i < size; i++) {
+            if (errorCodes[i] != NO_ERROR) {
+                errorCount--;
+            }
+            values[i] = null;
+            if (details != null && i < details.length) {
+                details[i] = null;
+            }
+        }
+        size = mark.size;
+        for (int parameterIndex = 0; parameterIndex < firstByParameter.length; parameterIndex++) {
+            if (firstByParameter[parameterIndex] >= size) {
+                firstByParameter[parameterIndex] = -1;
+            }
+            if (firstArgumentByParameter[parameterIndex] >= size) {
+                firstArgumentByParameter[parameterIndex] = -1;
+            }
+        }
+        for (int i = appendedCount - 1; i >= mark.appendedCount; i--) {
+            ValueList parameterValues = valuesByParameter[appendedParameterIndexes[i]];
+            parameterValues.truncate(parameterValues.size() - 1);
+            if (parameterValues.isEmpty()) {
+                valuesByParameter[appendedParameterIndexes[i]] = null;
+            }
+        }
+        appendedCount = mark.appendedCount;
+        if (positionals != null) {
+            positionals.truncate(mark.positionalCount);
+        }
+        remainingPositionals = null;
+        if (valueSourcesByParameter != null) {
+            Arrays.fill(valueSourcesByParameter, null);
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    int getParameterIndex(int argumentIndex) {
+        return parameterIndexes[argumentIndex];
+    }
+
+    /**
+     * @return The value, or {@code null} for an error.
+     */
+    String getValue(int argumentIndex) {
+        return values[argumentIndex];
+    }
+
+    /**
+     * @return The detail of the message of an error, like the token of an unknown key or the description of a violated rule,
+     * or {@code null}.
+     */
+    String getDetail(int argumentIndex) {
+        return details == null || argumentIndex >= details.length ? null : details[argumentIndex];
+    }
+
+    long getConvertedValue(int argumentIndex) {
+        return convertedValues[argumentIndex];
+    }
+
+    boolean isSuccess(int argumentIndex) {
+        return errorCodes[argumentIndex] == NO_ERROR;
+    }
+
+    /**
+     * @return The error type, or {@code null} when there is no error.
+     */
+    Argument.ArgumentError.Type getError(int argumentIndex) {
+        byte errorCode = errorCodes[argumentIndex];
+        return errorCode == NO_ERROR ? null : ERROR_TYPES[errorCode - 1];
+    }
+
+    boolean hasErrors() {
+        return errorCount > 0;
+    }
+
+    /**
+     * @return The index of the first argument for the parameter, or {@code -1}.
+     */
+    int getFirstArgumentIndex(int parameterIndex) {
+        return firstByParameter[parameterIndex];
+    }
+
+    /**
+     * @return The index of the first argument without error for the parameter, or {@code -1}.
+     */
+    int getFirstSuccessIndex(int parameterIndex) {
+        return firstArgumentByParameter[parameterIndex];
+    }
+
+    /**
+     * @return Whether an argument without error was added for the parameter.
+     */
+    boolean hasArgument(int parameterIndex) {
+        return firstArgumentByParameter[parameterIndex] >= 0;
+    }
+
+    /**
+     * @return The values of a multi-valued parameter, or {@code null}.
+     */
+    ValueList getValues(int parameterIndex) {
+        return valuesByParameter == null ? null : valuesByParameter[parameterIndex];
+    }
+
+    /**
+     * @return The value source that the argument for the parameter was taken from, or {@code null}.
+     */
+    ValueSource getValueSource(int parameterIndex) {
+        return valueSourcesByParameter == null ? null : valueSourcesByParameter[parameterIndex];
+    }
+
+    /**
+     * A position in the table, see {@link #mark()}.
+     */
+    static final class Mark {
+        private final int size;
+        private final int appendedCount;
+        private final int positionalCount;
+
+        private Mark(int size, int appendedCount, int positionalCount) {
+            this.size = size;
+            this.appendedCount = appendedCount;
+            this.positionalCount = positionalCount;
+        }
+
+        int size() {
+            return size;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package io.github.gerardpi.clargs;
+
+import java.util.List;
+
+/**
+ * Receives the arguments and errors found while parsing a command line, in the order in which they are found.
+ *
+ * @see Arguments#parse(java.util.Iterator, ArgumentVisitor)
+ */
+public interface ArgumentVisitor {
+    /**
+     * @param key The key of the parameter that was found.
+     * @param value The value of the argument, or {@code null} when the argument has no value.
+     */
+    void onArgument(Key key, String value);
+
+    /**
+     * Called instead of {@link #onArgument(Key, String)} for a value of a parameter with value format {@link Argument.ValueFormat#INT}.
+     */
+    default void onIntArgument(Key key, String value, int convertedValue) {
+        onArgument(key, value);
+    }
+
+    /**
+     * Called instead of {@link #onArgument(Key, String)} for a value of a parameter with value format {@link Argument.ValueFormat#LONG}.
+     */
+    default void onLongArgument(Key key, String value, long convertedValue) {
+        onArgument(key, value);
+    }
+
+    /**
+     * Called instead of {@link #onArgument(Key, String)} for a value of a parameter with value format {@link Argument.ValueFormat#DOUBLE}.
+     */
+    default void onDoubleArgument(Key key, String value, double convertedValue) {
+        onArgument(key, value);
+    }
+
+    /**
+     * Called before the argument (or error) of a parameter that is absent from the command line,
+     * when its value is taken from a value source instead.
+     * @see Arguments.Builder#addValueSource(ValueSource)
+     */
+    default void onValueSource(Key key, ValueSource source) {
+    }
+
+    /**
+     * Called for each token before {@code --} that is neither a key nor the value of one, like {@code input.txt}.
+     */
+    default void onPositional(String value) {
+    }
+
+    /**
+     * Called once for the tokens after {@code --}, which are all positional arguments, even when they look like keys;
+     * or, when a positional argument ends the options, for that one and the tokens after it.
+     * @see Arguments.Builder#setPositionalEndsOptions(boolean)
+     * @param values Read-only. When the command line is an array, this is a view on it, so it is not copied.
+     */
+    default void onPositionals(List<String> values) {
+        for (String value : values) {
+            onPositional(value);
+        }
+    }
+
+    /**
+     * @param key The key of the parameter that the error applies to.
+     * For {@link Argument.ArgumentError.Type#UNKNOWN_ARGUMENT} there is no such parameter: the key is made from the token,
+     * so its {@code toString()} is the token, like {@code --kaaz}, and only one of
+     * {@link Key#getShortKey()} and {@link Key#getLongKey()} is not {@code null}: the name after the dash or dashes.
+     * It does not equal any key of a parameter.
+     * The same holds for {@link Argument.ArgumentError.Type#UNREADABLE_ARGUMENT_FILE}, except that the token is like
+     * {@code @args.txt}, and both {@link Key#getShortKey()} and {@link Key#getLongKey()} are {@code null}.
+     * @param type What is wrong.
+     */
+    void onError(Key key, Argument.ArgumentError.Type type);
+
+    /**
+     * Called for a rule between arguments that the command line violates, after the last token.
+     * @param key The key of the parameter that the violation is reported for.
+     * @param description The rule, e.g. {@code --verbose and --quiet can not be combined}.
+     * @see Arguments.Builder#addMutuallyExclusive(Key...)
+     */
+    default void onConstraintViolation(Key key, Argument.ArgumentError.Type type, String description) {
+        onError(key, type);
+    }
+}
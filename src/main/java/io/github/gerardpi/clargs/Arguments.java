@@ -1,28 +1,72 @@
 package io.github.gerardpi.clargs;
 
-import com.google.common.collect.Iterators;
-import com.google.common.collect.PeekingIterator;
-
+import java.io.IOException;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * This class contains parameters to be used to parse a commaind line.
+ * <p>
+ * Arguments objects are immutable. The parameters are compiled into a {@link Parser}, which can be shared between threads.
  */
 public class Arguments {
+    private final Parser parser;
     private final List<Argument> parameters;
-    private final List<Argument> arguments;
+    private final KeyIndex keyIndex;
+    private final ArgumentTable table;
+    // Materialized when first asked for.
+    private volatile List<Argument> arguments;
+
+    private Arguments(Parser parser, ArgumentTable table) {
+        this.parser = parser;
+        this.parameters = parser.getParameters();
+        this.keyIndex = parser.getKeyIndex();
+        this.table = table;
+    }
+
+    static Arguments parsed(Parser parser, ArgumentTable table) {
+        return new Arguments(parser, table);
+    }
+
+    /**
+     * @return All arguments found, in command line order, as {@link Argument} objects created from the table when first asked for.
+     */
+    private List<Argument> arguments() {
+        List<Argument> result = arguments;
+        if (result == null) {
+            Argument[] materialized = new Argument[table.size()];
+            for (int i = 0; i < materialized.length; i++) {
+                materialized[i] = materialize(i);
+            }
+            result = Collections.unmodifiableList(Arrays.asList(materialized));
+            arguments = result;
+        }
+        return result;
+    }
+
+    private Argument materialize(int argumentIndex) {
+        return materialize(parser, table, argumentIndex);
+    }
 
-    private Arguments(List<Argument> parameters, List<Argument> arguments) {
-        this.parameters = parameters;
-        this.arguments = arguments;
+    static Argument materialize(Parser parser, ArgumentTable table, int argumentIndex) {
+        int parameterIndex = table.getParameterIndex(argumentIndex);
+        if (parameterIndex == KeyIndex.NOT_FOUND) {
+            return Argument.unknown(new UnknownKey(table.getDetail(argumentIndex), parser), table.getError(argumentIndex));
+        }
+        Argument parameter = parser.getParameters().get(parameterIndex);
+        Argument.ArgumentError.Type error = table.getError(argumentIndex);
+        if (error != null) {
+            return parameter.withError(error, table.getDetail(argumentIndex));
+        }
+        String value = table.getValue(argumentIndex);
+        return value == null ? parameter : parameter.withValue(value, table.getConvertedValue(argumentIndex));
     }
 
     @Override
     public String toString() {
         return new StringJoiner(", ", Arguments.class.getSimpleName() + "[", "]")
                 .add("parameters=" + parameters)
-                .add("arguments=" + arguments)
+                .add("arguments=" + arguments())
                 .toString();
     }
 
@@ -31,40 +75,95 @@ public class Arguments {
      * When a command line was parsed, and no errors were found, it will return a toString representation.
      */
     public String displayValue() {
-        return parameters.stream().map(Argument::displayValue).collect(Collectors.joining(System.lineSeparator()));
+        return parser.getDisplayValue();
     }
 
     public String errorsDisplayValue() {
-        return getArgumentsWithErrors().stream().map(argument -> argument.getError().getMessage()).collect(Collectors.joining(System.lineSeparator()));
+        StringBuilder errors = new StringBuilder();
+        for (Argument argument : arguments()) {
+            if (!argument.isSuccess()) {
+                if (errors.length() > 0) {
+                    errors.append(System.lineSeparator());
+                }
+                errors.append(argument.getError().getMessage());
+            }
+        }
+        return errors.toString();
+    }
+
+    /**
+     * Writes the usage text, with one line per parameter in aligned columns.
+     * The text is rendered once per parser, so writing it again only copies it to {@code out}.
+     * @see Parser#getUsage()
+     */
+    public void writeUsage(Appendable out) throws IOException {
+        out.append(parser.getUsage());
+    }
+
+    /**
+     * Writes the message of each error, one per line, without building the complete text first.
+     */
+    public void writeErrors(Appendable out) throws IOException {
+        for (Argument argument : arguments()) {
+            if (!argument.isSuccess()) {
+                out.append(argument.getError().getMessage()).append(System.lineSeparator());
+            }
+        }
     }
 
     /**
      * Use this method to create parameters.
+     * The short and long keys of the parameters are compiled into a lookup table here,
+     * so parsing resolves each command line token with a single lookup.
      *
      * @return Arguments that are actually still just parameters, waiting to be filled.
-     * @see #parseArguments to fill the parameters to be arguments
+     * @see #parseArgs(String[]) to fill the parameters to be arguments
      */
     public static Arguments create(List<Argument> parameters) {
-        return new Arguments(parameters, Collections.emptyList());
+        return create(Parser.create(parameters));
+    }
+
+    private static Arguments create(Parser parser) {
+        return new Arguments(parser, new ArgumentTable(parser.getParameters().size()));
+    }
+
+    /**
+     * @return The parser compiled from the parameters, which can be shared between threads.
+     */
+    public Parser getParser() {
+        return parser;
     }
 
     /**
      * @return All the arguments found without errors.
      */
     public List<Argument> get() {
-        return arguments.stream().filter(Argument::isSuccess).collect(Collectors.toList());
+        return filterBySuccess(true);
     }
 
     public boolean hasErrors() {
-        return this.arguments.stream().anyMatch(argument -> !argument.isSuccess());
+        return table.hasErrors();
     }
 
     public List<Argument> getArgumentsWithErrors() {
-        return this.arguments.stream().filter(argument -> !argument.isSuccess()).collect(Collectors.toList());
+        return filterBySuccess(false);
+    }
+
+    /**
+     * Written as a loop rather than a stream, to not load the stream and lambda classes in short-lived processes.
+     */
+    private List<Argument> filterBySuccess(boolean success) {
+        List<Argument> result = new ArrayList<>();
+        for (Argument argument : arguments()) {
+            if (argument.isSuccess() == success) {
+                result.add(argument);
+            }
+        }
+        return result;
     }
 
     public boolean isFilled() {
-        return !arguments.isEmpty();
+        return table.size() > 0;
     }
 
     /**
@@ -72,75 +171,224 @@ public class Arguments {
      * @return An Arguments object that contains parameters that are present in the command line.
      */
     public Arguments parseArgs(String[] args) {
-        return new Arguments(parameters, parseArguments(this.parameters, args));
+        return parser.parse(args);
     }
 
-    private static List<Argument> parseArguments(List<Argument> parameters, String[] args) {
-        PeekingIterator<String> argIterator = Iterators.peekingIterator(Arrays.asList(args).iterator());
-        List<Argument> result = new ArrayList<>();
-        while (argIterator.hasNext()) {
-            String arg = argIterator.next();
-            for (Argument parameter : parameters) {
-                if (parameter.matches(arg)) {
-                    if (argIterator.hasNext()) {
-                        String argPeeked = argIterator.peek();
-                        if (parameter.getKey().isKey(argPeeked)) {
-                            if (parameter.getValueType().requiresValue()) {
-                                result.add(parameter.withMissingArgumentValueError());
-                            }
-                            result.add(parameter);
-                        } else {
-                            if (parameter.getValueType().expectsValue()) {
-                                result.add(parameter.withValue(argPeeked));
-                                argIterator.next();
-                            } else {
-                                result.add(parameter.withNoArgumentValueExpectedError());
-                            }
-                        }
-                    } else {
-                        result.add(parameter);
-                    }
-                }
-            }
-        }
-        for (Argument parameter : parameters) {
-            if (parameter.isRequired() && result.stream().noneMatch(argument -> argument.getKey().equals(parameter.getKey()))) {
-                result.add(parameter.withMissingArgumentError());
-            }
-        }
-        return Collections.unmodifiableList(result);
+    /**
+     * Use this method to parse many command lines in parallel, for example to validate them in bulk.
+     * @return The parse results, in the order of the command lines.
+     * @see Parser#parseAll(List, java.util.concurrent.ForkJoinPool)
+     */
+    public List<Arguments> parseAll(List<String[]> commandLines) {
+        return parser.parseAll(commandLines);
+    }
+
+    /**
+     * @param parallelism The number of threads used for parsing.
+     * @see #parseAll(List)
+     */
+    public List<Arguments> parseAll(List<String[]> commandLines, int parallelism) {
+        return parser.parseAll(commandLines, parallelism);
+    }
+
+    /**
+     * Use this method to parse a command line that is edited between parses, like in an interactive shell.
+     * @see Parser#startSession()
+     */
+    public ParseSession startSession() {
+        return parser.startSession();
+    }
+
+    /**
+     * Use this method to parse a command line of which the tokens are produced one at a time.
+     * When argument file expansion is enabled, the tokens of {@code @path} argument files are read while parsing,
+     * so the complete command line never needs to be in memory.
+     * @return An Arguments object that contains parameters that are present in the command line.
+     * @see Builder#setArgumentFileExpansion(boolean)
+     */
+    public Arguments parseArgs(Iterator<String> args) {
+        return parser.parse(args);
+    }
+
+    /**
+     * Use this method to react to the arguments in a command line as they are found, without building an Arguments object.
+     * For each argument found, {@link ArgumentVisitor#onArgument(Key, String)} is called,
+     * and for each error {@link ArgumentVisitor#onError(Key, Argument.ArgumentError.Type)}.
+     * Missing required arguments are reported after the last token.
+     */
+    public void parse(Iterator<String> args, ArgumentVisitor visitor) {
+        parser.parse(args, visitor);
+    }
+
+    /**
+     * @see #parse(Iterator, ArgumentVisitor)
+     */
+    public void parse(Stream<String> args, ArgumentVisitor visitor) {
+        parser.parse(args, visitor);
     }
 
     public boolean hasArgument(Key key) {
-        return arguments.stream().anyMatch(argument -> argument.getKey().equals(key));
+        return firstArgumentIndex(key) >= 0;
     }
 
     public String getRequiredValue(Key key) {
-        return getArgument(key)
-                .map(Argument::getValue)
-                .orElseThrow(() -> new NoSuchElementException("There is no require value for argument '" + key + "'"));
+        int argumentIndex = firstSuccessIndex(key);
+        if (argumentIndex < 0 || table.getValue(argumentIndex) == null) {
+            throw new NoSuchElementException("There is no require value for argument '" + key + "'");
+        }
+        return table.getValue(argumentIndex);
     }
 
 
+    /**
+     * @return The value of an argument with value format {@link Argument.ValueFormat#INT}, as converted while parsing.
+     * @throws NoSuchElementException When there is no such argument, or it has no value.
+     */
+    public int getInt(Key key) {
+        return (int) getConvertedValue(getRequiredArgumentIndexWithValue(key), Argument.ValueFormat.INT);
+    }
+
+    public int getInt(Key key, int defaultValue) {
+        int argumentIndex = argumentIndexWithValue(key);
+        return argumentIndex < 0 ? defaultValue : (int) getConvertedValue(argumentIndex, Argument.ValueFormat.INT);
+    }
+
+    /**
+     * @return The value of an argument with value format {@link Argument.ValueFormat#LONG} or {@link Argument.ValueFormat#INT},
+     * as converted while parsing.
+     * @throws NoSuchElementException When there is no such argument, or it has no value.
+     */
+    public long getLong(Key key) {
+        return getConvertedValue(getRequiredArgumentIndexWithValue(key), Argument.ValueFormat.LONG);
+    }
+
+    public long getLong(Key key, long defaultValue) {
+        int argumentIndex = argumentIndexWithValue(key);
+        return argumentIndex < 0 ? defaultValue : getConvertedValue(argumentIndex, Argument.ValueFormat.LONG);
+    }
+
+    /**
+     * @return The value of an argument with value format {@link Argument.ValueFormat#DOUBLE}, as converted while parsing.
+     * @throws NoSuchElementException When there is no such argument, or it has no value.
+     */
+    public double getDouble(Key key) {
+        return Double.longBitsToDouble(getConvertedValue(getRequiredArgumentIndexWithValue(key), Argument.ValueFormat.DOUBLE));
+    }
+
+    public double getDouble(Key key, double defaultValue) {
+        int argumentIndex = argumentIndexWithValue(key);
+        return argumentIndex < 0 ? defaultValue : Double.longBitsToDouble(getConvertedValue(argumentIndex, Argument.ValueFormat.DOUBLE));
+    }
+
+    private int getRequiredArgumentIndexWithValue(Key key) {
+        int argumentIndex = argumentIndexWithValue(key);
+        if (argumentIndex < 0) {
+            throw new NoSuchElementException("There is no value for argument '" + key + "'");
+        }
+        return argumentIndex;
+    }
+
+    /**
+     * @return The index of the first argument for the key without error, when it has a value, or {@code -1}.
+     */
+    private int argumentIndexWithValue(Key key) {
+        int argumentIndex = firstSuccessIndex(key);
+        return argumentIndex >= 0 && table.getValue(argumentIndex) != null ? argumentIndex : -1;
+    }
+
+    /**
+     * @throws IllegalStateException When the value format of the parameter does not match, like {@link Argument#getIntValue()}.
+     */
+    private long getConvertedValue(int argumentIndex, Argument.ValueFormat expectedValueFormat) {
+        Argument parameter = parameters.get(table.getParameterIndex(argumentIndex));
+        Argument.checkValueFormat(parameter, expectedValueFormat);
+        return table.getConvertedValue(argumentIndex);
+    }
+
+    /**
+     * @return The value of the first argument for the key without error, so a value that could not be converted is skipped.
+     */
     public Optional<String> getValue(Key key) {
-        return getArgument(key)
-                .map(Argument::getValue);
+        int argumentIndex = firstSuccessIndex(key);
+        return argumentIndex < 0 ? Optional.empty() : Optional.ofNullable(table.getValue(argumentIndex));
+    }
+
+    /**
+     * @return All values given for the key, in command line order. For a multi-valued parameter this is a read-only view
+     * on the values as stored while parsing, so it is not copied.
+     * @see Argument.Builder#setMultiValued(boolean)
+     */
+    public List<String> getValues(Key key) {
+        int parameterIndex = keyIndex.indexOf(key);
+        if (parameterIndex == KeyIndex.NOT_FOUND) {
+            return Collections.emptyList();
+        }
+        ValueList values = table.getValues(parameterIndex);
+        if (values != null) {
+            return values;
+        }
+        int argumentIndex = table.getFirstSuccessIndex(parameterIndex);
+        return argumentIndex < 0 || table.getValue(argumentIndex) == null ? Collections.emptyList() : Collections.singletonList(table.getValue(argumentIndex));
+    }
+
+    /**
+     * @return The positional arguments, in command line order: the tokens that are neither keys nor values,
+     * followed by all tokens after {@code --}. When there are none before {@code --} and the command line is an array,
+     * this is a read-only view on that array, so handing off a long list of positional arguments does not copy it.
+     */
+    public List<String> getPositionals() {
+        return table.getPositionals();
+    }
+
+    /**
+     * @return The value source that the argument for the key was taken from,
+     * or nothing when it was given on the command line or not at all.
+     * @see Builder#addValueSource(ValueSource)
+     */
+    public Optional<ValueSource> getValueSource(Key key) {
+        int parameterIndex = keyIndex.indexOf(key);
+        return parameterIndex == KeyIndex.NOT_FOUND ? Optional.empty() : Optional.ofNullable(table.getValueSource(parameterIndex));
     }
 
+    /**
+     * @return The first argument found for the key.
+     */
     public Optional<Argument> getArgument(Key key) {
-        return arguments.stream()
-                .filter(argument -> argument.getKey().equals(key))
-                .findAny();
+        return Optional.ofNullable(findArgument(key));
+    }
+
+    private Argument findArgument(Key key) {
+        int argumentIndex = firstArgumentIndex(key);
+        return argumentIndex < 0 ? null : arguments().get(argumentIndex);
+    }
+
+    /**
+     * @return The index in the table of the first argument for the key, or {@code -1}.
+     */
+    private int firstArgumentIndex(Key key) {
+        int parameterIndex = keyIndex.indexOf(key);
+        return parameterIndex == KeyIndex.NOT_FOUND ? -1 : table.getFirstArgumentIndex(parameterIndex);
+    }
+
+    /**
+     * @return The index in the table of the first argument for the key without error, or {@code -1}.
+     */
+    private int firstSuccessIndex(Key key) {
+        int parameterIndex = keyIndex.indexOf(key);
+        return parameterIndex == KeyIndex.NOT_FOUND ? -1 : table.getFirstSuccessIndex(parameterIndex);
     }
 
     public Argument getRequiredArgument(Key key) {
-        return getArgument(key).orElseThrow(() -> new NoSuchElementException("There is no required argument '" + key + "'"));
+        Argument argument = findArgument(key);
+        if (argument == null) {
+            throw new NoSuchElementException("There is no required argument '" + key + "'");
+        }
+        return argument;
     }
 
     public Optional<Argument> getParameter(Key key) {
-        return parameters.stream()
-                .filter(argument -> argument.getKey().equals(key))
-                .findAny();
+        int parameterIndex = keyIndex.indexOf(key);
+        return parameterIndex == KeyIndex.NOT_FOUND ? Optional.empty() : Optional.of(parameters.get(parameterIndex));
     }
 
     public static Builder builder() {
@@ -149,6 +397,11 @@ public class Arguments {
 
     public static class Builder {
         private final List<Argument> parameters;
+        private boolean argumentFileExpansion;
+        private boolean positionalEndsOptions;
+        private ParseListener parseListener = ParseListener.NOOP;
+        private final List<ValueSource> valueSources = new ArrayList<>();
+        private final Constraints.Builder constraints = new Constraints.Builder();
         Builder() {
             this.parameters = new ArrayList<>();
         }
@@ -156,8 +409,89 @@ public class Arguments {
             parameters.add(parameter);
             return this;
         }
+
+        /**
+         * When enabled, a token {@code @path} is replaced by the tokens in the file at that path.
+         * Tokens in the file are delimited by newlines or NUL characters.
+         * Tokens after {@code --} are not expanded, and {@code @@} stands for a single {@code @}, so {@code --email @@handle}
+         * gives the value {@code @handle}. A file that can not be read is reported as
+         * {@link Argument.ArgumentError.Type#UNREADABLE_ARGUMENT_FILE}, like a typo in a key.
+         * The file is memory mapped and read while parsing, so its size does not affect memory use.
+         */
+        public Builder setArgumentFileExpansion(boolean argumentFileExpansion) {
+            this.argumentFileExpansion = argumentFileExpansion;
+            return this;
+        }
+
+        /**
+         * When enabled, the first positional argument ends the options, like {@code --} and like POSIX {@code getopt}:
+         * it and every token after it are positional arguments, even ones that look like keys.
+         * The tokens are then not looked at one by one, so for a {@code String[]} command line like
+         * {@code -v f1 ... f100000} the positional arguments are one read-only view on the array.
+         * By default a positional argument does not end the options, and each one is classified and copied.
+         */
+        public Builder setPositionalEndsOptions(boolean positionalEndsOptions) {
+            this.positionalEndsOptions = positionalEndsOptions;
+            return this;
+        }
+
+        /**
+         * Reports what the parser does to the given listener, for example a {@link ParseMetrics}.
+         * By default nothing is reported, and parsing does not measure time.
+         */
+        public Builder setParseListener(ParseListener parseListener) {
+            this.parseListener = Objects.requireNonNull(parseListener, "parseListener");
+            return this;
+        }
+
+        /**
+         * Adds a source of values for parameters that are absent from the command line.
+         * The command line takes precedence, then the sources in the order in which they are added.
+         * A required parameter is only missing when no source has a value for it either.
+         * For a parameter that expects no value, a value other than {@code false} counts as present.
+         * A parameter taken from a source counts as given for the rules between arguments as well,
+         * see {@link #addMutuallyExclusive(Key...)}.
+         */
+        public Builder addValueSource(ValueSource valueSource) {
+            valueSources.add(Objects.requireNonNull(valueSource, "valueSource"));
+            return this;
+        }
+
+        /**
+         * Declares that at most one of the keys may be given, like {@code --verbose} and {@code --quiet}.
+         * A violation is reported as {@link Argument.ArgumentError.Type#CONFLICTING_ARGUMENTS}.
+         * A parameter that is taken from a value source counts as given, so a value source that has a value for one key
+         * conflicts with the other key on the command line, which can then only be resolved by changing the value source.
+         */
+        public Builder addMutuallyExclusive(Key... keys) {
+            constraints.add(Constraints.Kind.MUTUALLY_EXCLUSIVE, null, keys);
+            return this;
+        }
+
+        /**
+         * Declares that when the key is given, the required keys must be given as well.
+         * A violation is reported as {@link Argument.ArgumentError.Type#MISSING_REQUIRED_ARGUMENTS}.
+         */
+        public Builder addRequires(Key key, Key... requiredKeys) {
+            constraints.add(Constraints.Kind.REQUIRES, Objects.requireNonNull(key, "key"), requiredKeys);
+            return this;
+        }
+
+        /**
+         * Declares that at least one of the keys must be given.
+         * A violation is reported as {@link Argument.ArgumentError.Type#MISSING_ONE_OF_ARGUMENTS}.
+         */
+        public Builder addAtLeastOneOf(Key... keys) {
+            constraints.add(Constraints.Kind.AT_LEAST_ONE_OF, null, keys);
+            return this;
+        }
+
         public Arguments build() {
-            return Arguments.create(parameters);
+            return Arguments.create(buildParser());
+        }
+
+        public Parser buildParser() {
+            return Parser.create(parameters, argumentFileExpansion, positionalEndsOptions, parseListener, valueSources, constraints);
         }
     }
 }
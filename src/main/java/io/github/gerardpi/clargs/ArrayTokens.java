@@ -0,0 +1,50 @@
+package io.github.gerardpi.clargs;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Iterates over the tokens of a command line array from an offset, without copying it,
+ * so the tokens that are left can be handed off as a view on the array.
+ */
+final class ArrayTokens implements Iterator<String> {
+    private final String[] args;
+    private int position;
+
+    ArrayTokens(String[] args) {
+        this(args, 0);
+    }
+
+    ArrayTokens(String[] args, int from) {
+        this.args = args;
+        this.position = from;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return position < args.length;
+    }
+
+    @Override
+    public String next() {
+        if (position >= args.length) {
+            throw new NoSuchElementException();
+        }
+        return args[position++];
+    }
+
+    /**
+     * Skips to the end of the array.
+     * @param fromLast Whether to start at the token that {@link #next()} returned last.
+     * @return The tokens that were left, as a read-only view on the array.
+     */
+    List<String> remaining(boolean fromLast) {
+        int from = fromLast ? position - 1 : position;
+        List<String> remaining = Collections.unmodifiableList(Arrays.asList(args).subList(from, args.length));
+        position = args.length;
+        return remaining;
+    }
+}
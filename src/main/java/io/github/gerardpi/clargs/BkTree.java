@@ -0,0 +1,141 @@
+package io.github.gerardpi.clargs;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A BK-tree over words, to find the words within an edit distance of a term without comparing the term to every word.
+ * Each child of a node is at a distinct distance from that node, and by the triangle inequality only the children at
+ * a distance within {@code [d - maxDistance, d + maxDistance]} of the node can contain matches,
+ * where {@code d} is the distance from the term to the node.
+ * <p>
+ * The distance is the Levenshtein distance: the number of characters to insert, delete or substitute.
+ */
+final class BkTree {
+    private final Node root;
+
+    private BkTree(Node root) {
+        this.root = root;
+    }
+
+    static BkTree build(List<String> words) {
+        Node root = null;
+        for (int i = 0; i < words.size(); i++) {
+            if (root == null) {
+                root = new Node(words.get(i), i);
+            } else {
+                root.add(words.get(i), i);
+            }
+        }
+        return new BkTree(root);
+    }
+
+    /**
+     * @return The words within the maximum distance of the term, nearest first, and in the order in which they were added when equally near.
+     */
+    List<String> search(String term, int maxDistance) {
+        List<Match> matches = new ArrayList<>();
+        if (root != null) {
+            root.search(term, maxDistance, matches);
+        }
+        matches.sort(null);
+        List<String> words = new ArrayList<>(matches.size());
+        for (Match match : matches) {
+            words.add(match.word);
+        }
+        return words;
+    }
+
+    static int distance(CharSequence a, CharSequence b) {
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            for (int j = 1; j <= b.length(); j++) {
+                int substitution = previous[j - 1] + (a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1);
+                current[j] = Math.min(substitution, Math.min(previous[j], current[j - 1]) + 1);
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()];
+    }
+
+    private static final class Node {
+        private final String word;
+        private final int order;
+        private int[] distances = new int[0];
+        private Node[] children = new Node[0];
+
+        Node(String word, int order) {
+            this.word = word;
+            this.order = order;
+        }
+
+        void add(String newWord, int newOrder) {
+            Node node = this;
+            while (true) {
+                int distance = distance(newWord, node.word);
+                if (distance == 0) {
+                    return;
+                }
+                Node child = node.childAt(distance);
+                if (child == null) {
+                    node.addChild(distance, new Node(newWord, newOrder));
+                    return;
+                }
+                node = child;
+            }
+        }
+
+        private Node childAt(int distance) {
+            for (int i = 0; i < distances.length; i++) {
+                if (distances[i] == distance) {
+                    return children[i];
+                }
+            }
+            return null;
+        }
+
+        private void addChild(int distance, Node child) {
+            distances = Arrays.copyOf(distances, distances.length + 1);
+            children = Arrays.copyOf(children, children.length + 1);
+            distances[distances.length - 1] = distance;
+            children[children.length - 1] = child;
+        }
+
+        void search(String term, int maxDistance, List<Match> matches) {
+            int distance = distance(term, word);
+            if (distance <= maxDistance) {
+                matches.add(new Match(word, distance, order));
+            }
+            for (int i = 0; i < distances.length; i++) {
+                if (Math.abs(distances[i] - distance) <= maxDistance) {
+                    children[i].search(term, maxDistance, matches);
+                }
+            }
+        }
+    }
+
+    private static final class Match implements Comparable<Match> {
+        private final String word;
+        private final int distance;
+        private final int order;
+
+        Match(String word, int distance, int order) {
+            this.word = word;
+            this.distance = distance;
+            this.order = order;
+        }
+
+        @Override
+        public int compareTo(Match other) {
+            return distance != other.distance ? Integer.compare(distance, other.distance) : Integer.compare(order, other.order);
+        }
+    }
+}
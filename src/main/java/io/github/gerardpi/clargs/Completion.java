@@ -0,0 +1,147 @@
+package io.github.gerardpi.clargs;
+
+import java.io.IOException;
+
+/**
+ * Shell completion for the keys of a {@link Parser}, in two ways:
+ * <ul>
+ *     <li>a static bash or zsh completion script, generated once, e.g. at install time,
+ *     so completing a key does not start a JVM at all</li>
+ *     <li>{@link #handle(String[], Parser, Appendable)}, an entry point for completing at runtime, which answers from
+ *     a prefix trie over the keys without parsing, for shells or tools that call the program to complete</li>
+ * </ul>
+ * After a key that requires a value, keys are not completed: {@link #handle(String[], Parser, Appendable)} writes nothing,
+ * and the generated scripts complete a text value as a file name and a numeric value not at all.
+ */
+public final class Completion {
+    /**
+     * The first argument that marks a completion request, followed by the words typed so far:
+     * {@code tool __complete -k edammer --to} lists the keys that start with {@code --to}.
+     */
+    public static final String REQUEST = "__complete";
+
+    private Completion() {
+        // Utility class
+    }
+
+    /**
+     * Answers a completion request, when the arguments are one: call this first thing in {@code main}.
+     * @return Whether the arguments were a completion request, of which the completions are written to {@code out}, one per line.
+     */
+    public static boolean handle(String[] args, Parser parser, Appendable out) throws IOException {
+        if (args.length == 0 || !REQUEST.equals(args[0])) {
+            return false;
+        }
+        String current = args.length > 1 ? args[args.length - 1] : "";
+        String previous = args.length > 2 ? args[args.length - 2] : null;
+        if (previous != null && requiresValue(parser, previous)) {
+            return true;
+        }
+        for (String key : parser.complete(current)) {
+            out.append(key).append('\n');
+        }
+        return true;
+    }
+
+    private static boolean requiresValue(Parser parser, String token) {
+        int parameterIndex = parser.getKeyIndex().indexOf(token);
+        return parameterIndex != KeyIndex.NOT_FOUND && parser.getParameters().get(parameterIndex).getValueType().requiresValue();
+    }
+
+    /**
+     * @return A bash completion script for the command, to be sourced, e.g. from {@code /etc/bash_completion.d}.
+     */
+    public static String bashScript(String command, Parser parser) {
+        String function = "_" + command.replaceAll("[^A-Za-z0-9_]", "_") + "_completion";
+        StringBuilder options = new StringBuilder();
+        StringBuilder valueCases = new StringBuilder();
+        for (Argument parameter : parser.getParameters()) {
+            String keys = keys(parameter, " ");
+            options.append(options.length() == 0 ? "" : " ").append(keys);
+            if (!parameter.getValueType().expectsValue()) {
+                continue;
+            }
+            boolean text = parameter.getValueFormat() == Argument.ValueFormat.STRING;
+            valueCases.append("        ").append(keys(parameter, "|")).append(")\n");
+            if (parameter.getValueType().requiresValue()) {
+                valueCases.append("            COMPREPLY=(").append(text ? "$(compgen -f -- \"$cur\")" : "").append(")\n");
+            } else {
+                valueCases.append("            COMPREPLY=($(compgen ").append(text ? "-f " : "").append("-W \"$options\" -- \"$cur\"))\n");
+            }
+            valueCases.append("            return 0\n")
+                    .append("            ;;\n");
+        }
+        StringBuilder script = new StringBuilder()
+                .append("# bash completion for ").append(command).append(", generated by clargs\n")
+                .append(function).append("() {\n")
+                .append("    local cur=\"${COMP_WORDS[COMP_CWORD]}\"\n")
+                .append("    local prev=\"${COMP_WORDS[COMP_CWORD-1]}\"\n")
+                .append("    local options=\"").append(options).append("\"\n");
+        if (valueCases.length() > 0) {
+            script.append("    case \"$prev\" in\n")
+                    .append(valueCases)
+                    .append("    esac\n");
+        }
+        return script.append("    COMPREPLY=($(compgen -W \"$options\" -- \"$cur\"))\n")
+                .append("}\n")
+                .append("complete -F ").append(function).append(' ').append(command).append('\n')
+                .toString();
+    }
+
+    /**
+     * @return A zsh completion script for the command, to be saved as {@code _command} in a directory on {@code $fpath}.
+     */
+    public static String zshScript(String command, Parser parser) {
+        StringBuilder script = new StringBuilder()
+                .append("#compdef ").append(command).append('\n')
+                .append("# zsh completion for ").append(command).append(", generated by clargs\n")
+                .append("_arguments");
+        for (Argument parameter : parser.getParameters()) {
+            script.append(" \\\n    ");
+            if (parameter.isMultiValued()) {
+                script.append("'*");
+            } else {
+                script.append("'(").append(keys(parameter, " ")).append(')');
+            }
+            // zsh only expands a brace group with more than one element.
+            if (parameter.getKey().getShortKey() != null && parameter.getKey().getLongKey() != null) {
+                script.append("'{").append(keys(parameter, ",")).append("}'");
+            } else {
+                script.append(keys(parameter, ","));
+            }
+            if (parameter.getDescription() != null) {
+                script.append('[').append(escapeZsh(parameter.getDescription())).append(']');
+            }
+            if (parameter.getValueType().expectsValue()) {
+                boolean text = parameter.getValueFormat() == Argument.ValueFormat.STRING;
+                script.append(parameter.getValueType().requiresValue() ? ":" : "::")
+                        .append(parameter.getValueFormat().getDisplayValue())
+                        .append(':')
+                        .append(text ? "_files" : " ");
+            }
+            script.append('\'');
+        }
+        return script.append('\n').toString();
+    }
+
+    private static String keys(Argument parameter, String separator) {
+        return Usage.keys(parameter.getKey(), separator);
+    }
+
+    /**
+     * Escapes a description for a zsh {@code _arguments} spec in single quotes.
+     */
+    private static String escapeZsh(String description) {
+        StringBuilder escaped = new StringBuilder();
+        for (char c : description.toCharArray()) {
+            if (c == '\'') {
+                escaped.append("'\\''");
+            } else if (c == '[' || c == ']' || c == ':' || c == '\\') {
+                escaped.append('\\').append(c);
+            } else {
+                escaped.append(c);
+            }
+        }
+        return escaped.toString();
+    }
+}
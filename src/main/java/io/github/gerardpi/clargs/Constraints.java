@@ -0,0 +1,199 @@
+package io.github.gerardpi.clargs;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Rules between arguments, compiled into bitmasks over parameter indexes.
+ * Validating a command line takes a few word operations per rule on the mask of present parameters,
+ * however many parameters a rule refers to. The cost does grow with the number of rules, as each rule is checked once per parse.
+ * Parameters taken from value sources count as present.
+ *
+ * @see Arguments.Builder#addMutuallyExclusive(Key...)
+ * @see Arguments.Builder#addRequires(Key, Key...)
+ * @see Arguments.Builder#addAtLeastOneOf(Key...)
+ */
+final class Constraints {
+    static final Constraints NONE = new Constraints(new Rule[0]);
+
+    private final Rule[] rules;
+
+    private Constraints(Rule[] rules) {
+        this.rules = rules;
+    }
+
+    /**
+     * @return The number of words in a mask with a bit for each of the parameters.
+     */
+    static int maskLength(int parameterCount) {
+        return (parameterCount + Long.SIZE - 1) / Long.SIZE;
+    }
+
+    static void set(long[] mask, int parameterIndex) {
+        mask[parameterIndex >>> 6] |= 1L << parameterIndex;
+    }
+
+    static boolean isSet(long[] mask, int parameterIndex) {
+        return (mask[parameterIndex >>> 6] & (1L << parameterIndex)) != 0;
+    }
+
+    /**
+     * Reports an error for each rule that the present parameters violate.
+     */
+    void validate(long[] present, List<Argument> parameters, ArgumentVisitor visitor) {
+        for (Rule rule : rules) {
+            int parameterIndex = rule.violatedBy(present);
+            if (parameterIndex != KeyIndex.NOT_FOUND) {
+                visitor.onConstraintViolation(parameters.get(parameterIndex).getKey(), rule.kind.errorType, rule.description);
+            }
+        }
+    }
+
+    static final class Builder {
+        private final List<Kind> kinds = new ArrayList<>();
+        private final List<Key> triggers = new ArrayList<>();
+        private final List<Key[]> keys = new ArrayList<>();
+
+        void add(Kind kind, Key trigger, Key[] ruleKeys) {
+            if (ruleKeys.length == 0) {
+                throw new IllegalArgumentException("A " + kind + " rule needs at least one key");
+            }
+            kinds.add(kind);
+            triggers.add(trigger);
+            keys.add(ruleKeys.clone());
+        }
+
+        Constraints compile(KeyIndex keyIndex, int parameterCount) {
+            if (kinds.isEmpty()) {
+                return NONE;
+            }
+            Rule[] rules = new Rule[kinds.size()];
+            for (int i = 0; i < rules.length; i++) {
+                Kind kind = kinds.get(i);
+                long[] mask = new long[maskLength(parameterCount)];
+                for (Key key : keys.get(i)) {
+                    set(mask, indexOf(keyIndex, key));
+                }
+                Key trigger = triggers.get(i);
+                int triggerIndex = trigger == null ? KeyIndex.NOT_FOUND : indexOf(keyIndex, trigger);
+                rules[i] = new Rule(kind, triggerIndex, mask, kind.describe(trigger, keys.get(i)));
+            }
+            return new Constraints(rules);
+        }
+
+        private static int indexOf(KeyIndex keyIndex, Key key) {
+            int parameterIndex = keyIndex.indexOf(key);
+            if (parameterIndex == KeyIndex.NOT_FOUND) {
+                throw new IllegalArgumentException("There is no parameter with key '" + key + "' to apply a rule to");
+            }
+            return parameterIndex;
+        }
+    }
+
+    enum Kind {
+        MUTUALLY_EXCLUSIVE(Argument.ArgumentError.Type.CONFLICTING_ARGUMENTS),
+        REQUIRES(Argument.ArgumentError.Type.MISSING_REQUIRED_ARGUMENTS),
+        AT_LEAST_ONE_OF(Argument.ArgumentError.Type.MISSING_ONE_OF_ARGUMENTS);
+        private final Argument.ArgumentError.Type errorType;
+
+        Kind(Argument.ArgumentError.Type errorType) {
+            this.errorType = errorType;
+        }
+
+        String describe(Key trigger, Key[] keys) {
+            switch (this) {
+                case MUTUALLY_EXCLUSIVE:
+                    return join(keys, "and") + " can not be combined";
+                case REQUIRES:
+                    return displayName(trigger) + " requires " + join(keys, "and");
+                default:
+                    return "one of " + join(keys, "or") + " is required";
+            }
+        }
+
+        private static String join(Key[] keys, String lastSeparator) {
+            StringBuilder joined = new StringBuilder();
+            for (int i = 0; i < keys.length; i++) {
+                if (i > 0) {
+                    joined.append(i == keys.length - 1 ? " " + lastSeparator + " " : ", ");
+                }
+                joined.append(displayName(keys[i]));
+            }
+            return joined.toString();
+        }
+
+        private static String displayName(Key key) {
+            return key.getLongKey() != null ? "--" + key.getLongKey() : "-" + key.getShortKey();
+        }
+    }
+
+    private static final class Rule {
+        private final Kind kind;
+        private final int triggerIndex;
+        private final long[] mask;
+        private final String description;
+
+        Rule(Kind kind, int triggerIndex, long[] mask, String description) {
+            this.kind = kind;
+            this.triggerIndex = triggerIndex;
+            this.mask = mask;
+            this.description = description;
+        }
+
+        /**
+         * @return The index of the parameter to report the violation for, or {@link KeyIndex#NOT_FOUND} when the rule holds.
+         */
+        int violatedBy(long[] present) {
+            switch (kind) {
+                case MUTUALLY_EXCLUSIVE:
+                    return secondPresent(present);
+                case REQUIRES:
+                    return isSet(present, triggerIndex) && !containsAll(present) ? triggerIndex : KeyIndex.NOT_FOUND;
+                default:
+                    return intersects(present) ? KeyIndex.NOT_FOUND : firstInMask();
+            }
+        }
+
+        private int secondPresent(long[] present) {
+            boolean first = true;
+            for (int word = 0; word < mask.length; word++) {
+                long bits = present[word] & mask[word];
+                while (bits != 0) {
+                    if (!first) {
+                        return word * Long.SIZE + Long.numberOfTrailingZeros(bits);
+                    }
+                    first = false;
+                    bits &= bits - 1;
+                }
+            }
+            return KeyIndex.NOT_FOUND;
+        }
+
+        private boolean containsAll(long[] present) {
+            for (int word = 0; word < mask.length; word++) {
+                if ((present[word] & mask[word]) != mask[word]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private boolean intersects(long[] present) {
+            for (int word = 0; word < mask.length; word++) {
+                if ((present[word] & mask[word]) != 0) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private int firstInMask() {
+            for (int word = 0; word < mask.length; word++) {
+                if (mask[word] != 0) {
+                    return word * Long.SIZE + Long.numberOfTrailingZeros(mask[word]);
+                }
+            }
+            return KeyIndex.NOT_FOUND;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package io.github.gerardpi.clargs;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a {@link Key} enum for which a specialized parser is generated at compile time,
+ * by {@link io.github.gerardpi.clargs.processor.ParserProcessor}.
+ * The constants that are annotated with {@link Parameter} become the parameters of the parser.
+ * <p>
+ * For an enum {@code ArgKey}, the class {@code ArgKeyParser} is generated in the same package.
+ * It matches tokens with a {@code switch} on strings and stores the values in typed fields, without reflection,
+ * so it also works in a GraalVM native image.
+ */
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.TYPE)
+public @interface GenerateParser {
+}
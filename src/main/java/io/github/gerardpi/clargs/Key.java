@@ -1,21 +1,21 @@
 package io.github.gerardpi.clargs;
 
-import com.google.common.base.Preconditions;
-
-import java.util.regex.Pattern;
+import java.util.Objects;
 
 public interface Key {
     String getShortKey();
     String getLongKey();
 
     default boolean matches(String key) {
-        Preconditions.checkNotNull(key);
+        Objects.requireNonNull(key);
         return ("-" + getShortKey()).equals(key) || ("--" + getLongKey()).equals(key);
     }
 
-    Pattern RE_KEY = Pattern.compile("(-|--)([a-z]+)");
-
+    /**
+     * @return Whether the token looks like a key, like {@code -k}, {@code -abc}, {@code --kaas} or {@code --kaas=edammer},
+     * as opposed to a value.
+     */
     default boolean isKey(String something) {
-        return RE_KEY.matcher(something).matches();
+        return Tokens.isKey(something);
     }
 }
@@ -0,0 +1,156 @@
+package io.github.gerardpi.clargs;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A lookup table from command line tokens to parameter indexes, compiled once per parameter list.
+ * Short and long key names are kept in separate open addressing tables, so a token like {@code --kaas}
+ * can be resolved by hashing the characters after the dashes in place, without building
+ * {@code "--" + longKey} strings or substrings.
+ * It also maps each {@link Key} to its parameter index, using an {@link EnumMap} when all keys belong to the same enum.
+ */
+final class KeyIndex {
+    static final int NOT_FOUND = -1;
+
+    private final Table shortKeys;
+    private final Table longKeys;
+    private final Map<Key, Integer> parameterIndexes;
+
+    private KeyIndex(Table shortKeys, Table longKeys, Map<Key, Integer> parameterIndexes) {
+        this.shortKeys = shortKeys;
+        this.longKeys = longKeys;
+        this.parameterIndexes = parameterIndexes;
+    }
+
+    static KeyIndex compile(List<Argument> parameters) {
+        Table shortKeys = new Table(parameters.size());
+        Table longKeys = new Table(parameters.size());
+        Map<Key, Integer> parameterIndexes = newKeyMap(parameters);
+        for (int i = 0; i < parameters.size(); i++) {
+            Key key = parameters.get(i).getKey();
+            shortKeys.putIfAbsent(key.getShortKey(), i);
+            longKeys.putIfAbsent(key.getLongKey(), i);
+            parameterIndexes.putIfAbsent(key, i);
+        }
+        return new KeyIndex(shortKeys, longKeys, parameterIndexes);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Map<Key, Integer> newKeyMap(List<Argument> parameters) {
+        Class enumType = null;
+        for (Argument parameter : parameters) {
+            Key key = parameter.getKey();
+            if (!(key instanceof Enum)) {
+                return new HashMap<>();
+            }
+            Class keyEnumType = ((Enum) key).getDeclaringClass();
+            if (enumType != null && enumType != keyEnumType) {
+                return new HashMap<>();
+            }
+            enumType = keyEnumType;
+        }
+        return enumType == null ? new HashMap<>() : new EnumMap(enumType);
+    }
+
+    /**
+     * @return The index of the parameter with the given key, or {@link #NOT_FOUND}.
+     */
+    int indexOf(Key key) {
+        Integer index = key == null ? null : parameterIndexes.get(key);
+        return index == null ? NOT_FOUND : index;
+    }
+
+    /**
+     * @return The index of the parameter that the complete token refers to, e.g. {@code -k} or {@code --kaas},
+     * or {@link #NOT_FOUND}.
+     */
+    int indexOf(String token) {
+        int length = token.length();
+        if (length > 2 && token.charAt(0) == '-' && token.charAt(1) == '-') {
+            return longKeys.get(token, 2, length);
+        }
+        if (length > 1 && token.charAt(0) == '-') {
+            return shortKeys.get(token, 1, length);
+        }
+        return NOT_FOUND;
+    }
+
+    /**
+     * @return The index of the parameter with the short key found in {@code chars[from, to)}, or {@link #NOT_FOUND}.
+     */
+    int indexOfShortKey(CharSequence chars, int from, int to) {
+        return shortKeys.get(chars, from, to);
+    }
+
+    /**
+     * @return The index of the parameter with the long key found in {@code chars[from, to)}, or {@link #NOT_FOUND}.
+     */
+    int indexOfLongKey(CharSequence chars, int from, int to) {
+        return longKeys.get(chars, from, to);
+    }
+
+    /**
+     * Open addressing hash table with linear probing, keyed by name and hashed over a character range,
+     * using the same function as {@link String#hashCode()}.
+     */
+    private static final class Table {
+        private final String[] names;
+        private final int[] indexes;
+        private final int mask;
+
+        Table(int expectedSize) {
+            int capacity = Integer.highestOneBit(Math.max(2, expectedSize) * 2 - 1) << 1;
+            this.names = new String[capacity];
+            this.indexes = new int[capacity];
+            this.mask = capacity - 1;
+        }
+
+        void putIfAbsent(String name, int index) {
+            if (name == null || name.isEmpty()) {
+                return;
+            }
+            int slot = spread(name.hashCode()) & mask;
+            while (names[slot] != null) {
+                if (names[slot].equals(name)) {
+                    return;
+                }
+                slot = (slot + 1) & mask;
+            }
+            names[slot] = name;
+            indexes[slot] = index;
+        }
+
+        int get(CharSequence chars, int from, int to) {
+            int hash = 0;
+            for (int i = from; i < to; i++) {
+                hash = 31 * hash + chars.charAt(i);
+            }
+            int length = to - from;
+            int slot = spread(hash) & mask;
+            String name;
+            while ((name = names[slot]) != null) {
+                if (name.length() == length && regionMatches(name, chars, from)) {
+                    return indexes[slot];
+                }
+                slot = (slot + 1) & mask;
+            }
+            return NOT_FOUND;
+        }
+
+        private static boolean regionMatches(String name, CharSequence chars, int from) {
+            for (int i = 0; i < name.length(); i++) {
+                if (name.charAt(i) != chars.charAt(from + i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static int spread(int hash) {
+            return hash ^ (hash >>> 16);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package io.github.gerardpi.clargs;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Declares a constant of a {@link GenerateParser} enum as parameter, in the same terms as {@link Argument.Builder}.
+ * The keys are repeated here, because they are only known at compile time when given as annotation values.
+ */
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.FIELD)
+public @interface Parameter {
+    String shortKey();
+
+    String longKey();
+
+    boolean required() default false;
+
+    Argument.ValueType valueType() default Argument.ValueType.NO_VALUE;
+
+    Argument.ValueFormat valueFormat() default Argument.ValueFormat.STRING;
+
+    String description() default "";
+}
@@ -0,0 +1,50 @@
+package io.github.gerardpi.clargs;
+
+/**
+ * Receives what a {@link Parser} does, for example to feed a metrics pipeline.
+ * One listener is shared by all parses of a parser, so implementations must be thread-safe when a parser is shared between threads.
+ * <p>
+ * All methods do nothing by default. When the listener is {@link #NOOP}, the parser does not measure time at all.
+ *
+ * @see Arguments.Builder#setParseListener(ParseListener)
+ * @see ParseMetrics
+ */
+public interface ParseListener {
+    ParseListener NOOP = new ParseListener() {
+    };
+
+    /**
+     * Called for each token that refers to a parameter; a bundle like {@code -abc} matches three keys.
+     */
+    default void onKeyMatched(Key key) {
+    }
+
+    /**
+     * Called for each error, like {@link ArgumentVisitor#onError(Key, Argument.ArgumentError.Type)}.
+     */
+    default void onError(Key key, Argument.ArgumentError.Type type) {
+    }
+
+    /**
+     * Called for each token that looks like a key, but matches no parameter.
+     * @param token As given on the command line, so it may contain anything, including values that should not be logged.
+     */
+    default void onUnknownToken(String token) {
+    }
+
+    /**
+     * Called for positional arguments: once for each one before {@code --}, and once for all tokens after {@code --},
+     * or after the positional argument that ends the options.
+     * @param count The number of positional arguments.
+     */
+    default void onPositionals(int count) {
+    }
+
+    /**
+     * Called after the last token of a command line, including the tokens of expanded argument files.
+     * @param tokenCount The number of tokens that were read.
+     * @param durationNanos The time spent parsing, including reading argument files.
+     */
+    default void onParseFinished(int tokenCount, long durationNanos) {
+    }
+}
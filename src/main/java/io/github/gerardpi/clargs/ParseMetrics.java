@@ -0,0 +1,97 @@
+package io.github.gerardpi.clargs;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts what a {@link Parser} does, summed over all parses.
+ * It is thread-safe, and uses striped counters so parses on many threads do not contend on one counter.
+ * The counts can be read at any time, for example by a metrics reporter that polls them.
+ */
+public final class ParseMetrics implements ParseListener {
+    private final LongAdder parseCount = new LongAdder();
+    private final LongAdder tokenCount = new LongAdder();
+    private final LongAdder totalDurationNanos = new LongAdder();
+    private final LongAccumulator maxDurationNanos = new LongAccumulator(Math::max, 0L);
+    private final LongAdder unknownTokenCount = new LongAdder();
+    private final LongAdder positionalCount = new LongAdder();
+    private final Map<Argument.ArgumentError.Type, LongAdder> errorCounts = new EnumMap<>(Argument.ArgumentError.Type.class);
+    private final ConcurrentHashMap<Key, LongAdder> matchCounts = new ConcurrentHashMap<>();
+
+    public ParseMetrics() {
+        // Filled once, so the map is only read afterwards.
+        for (Argument.ArgumentError.Type type : Argument.ArgumentError.Type.values()) {
+            errorCounts.put(type, new LongAdder());
+        }
+    }
+
+    @Override
+    public void onKeyMatched(Key key) {
+        matchCounts.computeIfAbsent(key, k -> new LongAdder()).increment();
+    }
+
+    @Override
+    public void onError(Key key, Argument.ArgumentError.Type type) {
+        errorCounts.get(type).increment();
+    }
+
+    @Override
+    public void onUnknownToken(String token) {
+        unknownTokenCount.increment();
+    }
+
+    @Override
+    public void onPositionals(int count) {
+        positionalCount.add(count);
+    }
+
+    @Override
+    public void onParseFinished(int tokenCount, long durationNanos) {
+        parseCount.increment();
+        this.tokenCount.add(tokenCount);
+        totalDurationNanos.add(durationNanos);
+        maxDurationNanos.accumulate(durationNanos);
+    }
+
+    public long getParseCount() {
+        return parseCount.sum();
+    }
+
+    public long getTokenCount() {
+        return tokenCount.sum();
+    }
+
+    public long getTotalDurationNanos() {
+        return totalDurationNanos.sum();
+    }
+
+    /**
+     * @return The duration of the slowest parse.
+     */
+    public long getMaxDurationNanos() {
+        return maxDurationNanos.get();
+    }
+
+    public long getUnknownTokenCount() {
+        return unknownTokenCount.sum();
+    }
+
+    public long getPositionalCount() {
+        return positionalCount.sum();
+    }
+
+    public long getErrorCount(Argument.ArgumentError.Type type) {
+        return errorCounts.get(type).sum();
+    }
+
+    /**
+     * @return How often a token referred to the parameter with the given key.
+     */
+    public long getMatchCount(Key key) {
+        LongAdder count = matchCounts.get(key);
+        return count == null ? 0L : count.sum();
+    }
+}
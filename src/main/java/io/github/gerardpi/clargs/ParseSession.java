@@ -0,0 +1,203 @@
+package io.github.gerardpi.clargs;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Parses a command line that is edited between parses, like one that is validated on every keystroke in an interactive shell.
+ * <p>
+ * The session keeps the arguments found and a checkpoint before each key, positional argument or {@code --}.
+ * After an edit, only the tokens from the checkpoint before the first changed token on are parsed again,
+ * so the parsing work is proportional to the number of tokens after the edit. Comparing the command line with the
+ * previous one, copying it and discarding the arguments found after the checkpoint still take time linear in the number
+ * of tokens and parameters.
+ * Value sources and the rules between arguments are applied after every parse.
+ * The errors that the edit adds and removes are available as {@link #getAddedErrors()} and {@link #getRemovedErrors()}.
+ * <p>
+ * A session is not thread-safe, and argument files are not expanded.
+ *
+ * @see Parser#startSession()
+ */
+public final class ParseSession {
+    private final Parser parser;
+    private final ArgumentTable table;
+    private final ArgumentCollector collector;
+    private final Checkpoint start;
+    private final List<Checkpoint> checkpoints = new ArrayList<>();
+    private String[] tokens;
+    private Arguments arguments;
+    private int firstParsedToken;
+    private List<Argument.ArgumentError> addedErrors = Collections.emptyList();
+    private List<Argument.ArgumentError> removedErrors = Collections.emptyList();
+
+    ParseSession(Parser parser) {
+        this.parser = parser;
+        this.table = new ArgumentTable(parser.getParameters().size());
+        this.collector = new ArgumentCollector(parser.getParameters(), parser.getKeyIndex(), table, ValueInterner.NONE);
+        this.start = new Checkpoint(0, table.mark(), new long[Constraints.maskLength(parser.getParameters().size())]);
+    }
+
+    /**
+     * Parses the edited command line, from the checkpoint before the first token that differs from the previous one.
+     * @return The arguments of the command line, which read from this session,
+     * so they are only valid until the next call of this method.
+     */
+    public Arguments parse(String[] args) {
+        Objects.requireNonNull(args, "args");
+        if (tokens != null && Arrays.equals(tokens, args)) {
+            firstParsedToken = args.length;
+            addedErrors = Collections.emptyList();
+            removedErrors = Collections.emptyList();
+            return arguments;
+        }
+        Checkpoint from = tokens == null ? start : checkpointBefore(firstDifference(tokens, args));
+        List<ErrorEntry> previousErrors = errorsFrom(from.mark.size());
+        table.truncate(from.mark);
+        long[] present = from.present.clone();
+        ArgumentVisitor visitor = parser.listening(collector);
+        ParseListener parseListener = parser.getParseListener();
+        long startNanos = parseListener == ParseListener.NOOP ? 0L : System.nanoTime();
+        TokenIterator argIterator = new TokenIterator(new ArrayTokens(args, from.tokenIndex));
+        while (argIterator.hasNext()) {
+            checkpoints.add(new Checkpoint(from.tokenIndex + argIterator.getCount(), table.mark(), present.clone()));
+            parser.parseStep(argIterator, present, visitor);
+        }
+        parser.finishParse(present, visitor);
+        if (parseListener != ParseListener.NOOP) {
+            parseListener.onParseFinished(argIterator.getCount(), System.nanoTime() - startNanos);
+        }
+        diffErrors(previousErrors, errorsFrom(from.mark.size()));
+        tokens = args.clone();
+        firstParsedToken = from.tokenIndex;
+        arguments = Arguments.parsed(parser, table);
+        return arguments;
+    }
+
+    /**
+     * @return The index of the first token that was parsed again by the last parse, or the number of tokens when none was.
+     */
+    public int getFirstParsedToken() {
+        return firstParsedToken;
+    }
+
+    /**
+     * @return The errors that the last parse found and the one before it did not.
+     */
+    public List<Argument.ArgumentError> getAddedErrors() {
+        return addedErrors;
+    }
+
+    /**
+     * @return The errors that the parse before the last one found and the last one did not.
+     */
+    public List<Argument.ArgumentError> getRemovedErrors() {
+        return removedErrors;
+    }
+
+    private static int firstDifference(String[] previous, String[] args) {
+        int length = Math.min(previous.length, args.length);
+        for (int i = 0; i < length; i++) {
+            if (!previous[i].equals(args[i])) {
+                return i;
+            }
+        }
+        return length;
+    }
+
+    /**
+     * Removes the checkpoints from the one to parse from on, which is the last one before the changed token:
+     * the token before the changed one may have looked ahead at it.
+     */
+    private Checkpoint checkpointBefore(int changedToken) {
+        int index = checkpoints.size() - 1;
+        while (index > 0 && checkpoints.get(index).tokenIndex > changedToken - 1) {
+            index--;
+        }
+        if (index < 0) {
+            return start;
+        }
+        Checkpoint checkpoint = checkpoints.get(index);
+        checkpoints.subList(index, checkpoints.size()).clear();
+        return checkpoint;
+    }
+
+    private List<ErrorEntry> errorsFrom(int argumentIndex) {
+        List<ErrorEntry> errors = new ArrayList<>();
+        for (int i = argumentIndex; i < table.size(); i++) {
+            if (!table.isSuccess(i)) {
+                errors.add(new ErrorEntry(table.getError(i), table.getParameterIndex(i), table.getDetail(i),
+                        Arguments.materialize(parser, table, i).getError()));
+            }
+        }
+        return errors;
+    }
+
+    /**
+     * Matches the errors before and after the edit, as the errors before the checkpoint did not change.
+     */
+    private void diffErrors(List<ErrorEntry> previous, List<ErrorEntry> current) {
+        boolean[] matched = new boolean[previous.size()];
+        List<Argument.ArgumentError> added = new ArrayList<>();
+        for (ErrorEntry error : current) {
+            int match = indexOfUnmatched(previous, matched, error);
+            if (match < 0) {
+                added.add(error.error);
+            } else {
+                matched[match] = true;
+            }
+        }
+        List<Argument.ArgumentError> removed = new ArrayList<>();
+        for (int i = 0; i < matched.length; i++) {
+            if (!matched[i]) {
+                removed.add(previous.get(i).error);
+            }
+        }
+        addedErrors = Collections.unmodifiableList(added);
+        removedErrors = Collections.unmodifiableList(removed);
+    }
+
+    private static int indexOfUnmatched(List<ErrorEntry> errors, boolean[] matched, ErrorEntry error) {
+        for (int i = 0; i < errors.size(); i++) {
+            if (!matched[i] && errors.get(i).isSameAs(error)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * The state of the parse before the token at an index.
+     */
+    private static final class Checkpoint {
+        private final int tokenIndex;
+        private final ArgumentTable.Mark mark;
+        private final long[] present;
+
+        Checkpoint(int tokenIndex, ArgumentTable.Mark mark, long[] present) {
+            this.tokenIndex = tokenIndex;
+            this.mark = mark;
+            this.present = present;
+        }
+    }
+
+    private static final class ErrorEntry {
+        private final Argument.ArgumentError.Type type;
+        private final int parameterIndex;
+        private final String detail;
+        private final Argument.ArgumentError error;
+
+        ErrorEntry(Argument.ArgumentError.Type type, int parameterIndex, String detail, Argument.ArgumentError error) {
+            this.type = type;
+            this.parameterIndex = parameterIndex;
+            this.detail = detail;
+            this.error = error;
+        }
+
+        boolean isSameAs(ErrorEntry other) {
+            return type == other.type && parameterIndex == other.parameterIndex && Objects.equals(detail, other.detail);
+        }
+    }
+}
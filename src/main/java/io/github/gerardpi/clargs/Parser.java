@@ -0,0 +1,558 @@
+package io.github.gerardpi.clargs;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
+
+/**
+ * Parses command lines against a list of parameters, compiled once into a key lookup table.
+ * <p>
+ * A Parser is immutable and thread-safe: one instance can be shared by any number of threads, including virtual threads,
+ * that parse concurrently. All state needed while parsing a command line is created per call,
+ * so concurrent calls do not contend on locks or shared mutable state.
+ */
+public final class Parser {
+    private static final int BATCHES_PER_THREAD = 4;
+    private static final int MAX_SUGGESTIONS = 3;
+
+    private final List<Argument> parameters;
+    private final KeyIndex keyIndex;
+    private final boolean argumentFileExpansion;
+    private final boolean positionalEndsOptions;
+    private final ParseListener parseListener;
+    private final ValueSource[] valueSources;
+    private final Constraints constraints;
+    // Rendered when first asked for. Racy single-check: rendering twice is harmless, and a String is safely published.
+    private String usage;
+    private String displayValue;
+    // Built on the first unknown key, so parsers that never see one do not pay for it.
+    private volatile BkTree keyNames;
+    // Built on the first completion.
+    private volatile PrefixTrie<Argument> completions;
+
+    private Parser(List<Argument> parameters, boolean argumentFileExpansion, boolean positionalEndsOptions, ParseListener parseListener,
+                   ValueSource[] valueSources, Constraints.Builder constraints) {
+        this.parameters = parameters;
+        this.keyIndex = KeyIndex.compile(parameters);
+        this.argumentFileExpansion = argumentFileExpansion;
+        this.positionalEndsOptions = positionalEndsOptions;
+        this.parseListener = parseListener;
+        this.valueSources = valueSources;
+        this.constraints = constraints.compile(keyIndex, parameters.size());
+    }
+
+    /**
+     * @param parameters Copied, so changes to the list afterwards do not affect the parser.
+     */
+    public static Parser create(List<Argument> parameters) {
+        return create(parameters, false, false, ParseListener.NOOP, Collections.emptyList(), new Constraints.Builder());
+    }
+
+    static Parser create(List<Argument> parameters, boolean argumentFileExpansion, boolean positionalEndsOptions, ParseListener parseListener,
+                         List<ValueSource> valueSources, Constraints.Builder constraints) {
+        return new Parser(Collections.unmodifiableList(new ArrayList<>(parameters)), argumentFileExpansion, positionalEndsOptions,
+                parseListener, valueSources.toArray(new ValueSource[0]), constraints);
+    }
+
+    public List<Argument> getParameters() {
+        return parameters;
+    }
+
+    KeyIndex getKeyIndex() {
+        return keyIndex;
+    }
+
+    /**
+     * @return The usage text, with one line per parameter in aligned columns, rendered once per parser.
+     */
+    public String getUsage() {
+        String result = usage;
+        if (result == null) {
+            result = Usage.render(parameters);
+            usage = result;
+        }
+        return result;
+    }
+
+    /**
+     * @return The display values of the parameters, one per line, rendered once per parser.
+     * @see Argument#displayValue()
+     */
+    public String getDisplayValue() {
+        String result = displayValue;
+        if (result == null) {
+            result = Usage.displayValue(parameters);
+            displayValue = result;
+        }
+        return result;
+    }
+
+    /**
+     * Looks up the keys that are most similar to a token that matches no parameter, in an index that is built once.
+     * The dashes count as characters of the edit distance, so a key with a dash too many or too few, like {@code -kaas}
+     * for {@code --kaas}, is only suggested when its name is long enough to allow a distance of one.
+     * @param token A key like {@code --kaaz}, optionally followed by {@code =} and a value.
+     * @return At most three keys, like {@code --kaas}, most similar first.
+     */
+    public List<String> getSuggestions(String token) {
+        String key = Tokens.isLongKey(token) ? token.substring(0, Tokens.longKeyNameEnd(token)) : token;
+        int nameLength = key.length() - (key.startsWith("--") ? 2 : 1);
+        int maxDistance = nameLength < 3 ? 0 : nameLength < 6 ? 1 : 2;
+        List<String> suggestions = keyNames().search(key, maxDistance);
+        suggestions.remove(key);
+        return suggestions.size() > MAX_SUGGESTIONS ? new ArrayList<>(suggestions.subList(0, MAX_SUGGESTIONS)) : suggestions;
+    }
+
+    /**
+     * Completes a key from a prefix of it, from a trie over the keys that is built once, without parsing.
+     * @return The keys that start with the prefix, like {@code --kaas} for {@code --ka}, in order.
+     * @see Completion
+     */
+    public List<String> complete(String prefix) {
+        PrefixTrie<Argument> result = completions;
+        if (result == null) {
+            result = new PrefixTrie<>();
+            for (Argument parameter : parameters) {
+                if (parameter.getKey().getShortKey() != null) {
+                    result.put("-" + parameter.getKey().getShortKey(), parameter);
+                }
+                if (parameter.getKey().getLongKey() != null) {
+                    result.put("--" + parameter.getKey().getLongKey(), parameter);
+                }
+            }
+            completions = result;
+        }
+        return result.namesStartingWith(prefix);
+    }
+
+    private BkTree keyNames() {
+        BkTree result = keyNames;
+        if (result == null) {
+            List<String> names = new ArrayList<>();
+            for (Argument parameter : parameters) {
+                if (parameter.getKey().getLongKey() != null) {
+                    names.add("--" + parameter.getKey().getLongKey());
+                }
+                if (parameter.getKey().getShortKey() != null) {
+                    names.add("-" + parameter.getKey().getShortKey());
+                }
+            }
+            result = BkTree.build(names);
+            keyNames = result;
+        }
+        return result;
+    }
+
+    /**
+     * @return An Arguments object that contains parameters that are present in the command line.
+     */
+    public Arguments parse(String[] args) {
+        return parse(new ArrayTokens(args));
+    }
+
+    /**
+     * Parses a command line of which the tokens are produced one at a time.
+     * When argument file expansion is enabled, the tokens of {@code @path} argument files are read while parsing,
+     * so the complete command line never needs to be in memory.
+     * @return An Arguments object that contains parameters that are present in the command line.
+     * @see Arguments.Builder#setArgumentFileExpansion(boolean)
+     */
+    public Arguments parse(Iterator<String> args) {
+        return parse(args, ValueInterner.NONE);
+    }
+
+    private Arguments parse(Iterator<String> args, UnaryOperator<String> valueInterner) {
+        ArgumentCollector collector = new ArgumentCollector(parameters, keyIndex, valueInterner);
+        parse(args, collector);
+        return Arguments.parsed(this, collector.getTable());
+    }
+
+    /**
+     * Parses many command lines in parallel on the common fork-join pool.
+     * @see #parseAll(List, ForkJoinPool)
+     */
+    public List<Arguments> parseAll(List<String[]> commandLines) {
+        return parseAll(commandLines, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Parses many command lines in parallel on a fork-join pool with the given parallelism, which is shut down afterwards.
+     * @see #parseAll(List, ForkJoinPool)
+     */
+    public List<Arguments> parseAll(List<String[]> commandLines, int parallelism) {
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            return parseAll(commandLines, pool);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Parses many command lines in parallel on the given pool, for example to validate them in bulk.
+     * Equal values are shared between the results, so values that are repeated across command lines are kept only once.
+     * @return The parse results, in the order of the command lines.
+     */
+    public List<Arguments> parseAll(List<String[]> commandLines, ForkJoinPool pool) {
+        Arguments[] results = new Arguments[commandLines.size()];
+        int batchSize = Math.max(1, commandLines.size() / (pool.getParallelism() * BATCHES_PER_THREAD));
+        pool.invoke(new ParseAllAction(commandLines, results, 0, results.length, batchSize, new ValueInterner()));
+        return Collections.unmodifiableList(Arrays.asList(results));
+    }
+
+    /**
+     * Parses a range of command lines, splitting it in halves until it is no larger than the batch size.
+     */
+    private final class ParseAllAction extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final List<String[]> commandLines;
+        private final Arguments[] results;
+        private final int from;
+        private final int to;
+        private final int batchSize;
+        private final ValueInterner valueInterner;
+
+        ParseAllAction(List<String[]> commandLines, Arguments[] results, int from, int to, int batchSize, ValueInterner valueInterner) {
+            this.commandLines = commandLines;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+            this.batchSize = batchSize;
+            this.valueInterner = valueInterner;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= batchSize) {
+                for (int i = from; i < to; i++) {
+                    results[i] = parse(new ArrayTokens(commandLines.get(i)), valueInterner);
+                }
+            } else {
+                int middle = (from + to) >>> 1;
+                invokeAll(new ParseAllAction(commandLines, results, from, middle, batchSize, valueInterner),
+                        new ParseAllAction(commandLines, results, middle, to, batchSize, valueInterner));
+            }
+        }
+    }
+
+    /**
+     * Reports the arguments in a command line as they are found, without building an Arguments object.
+     * For each argument found, {@link ArgumentVisitor#onArgument(Key, String)} is called,
+     * and for each error {@link ArgumentVisitor#onError(Key, Argument.ArgumentError.Type)}.
+     * A token that looks like a key but matches no parameter is reported as {@link Argument.ArgumentError.Type#UNKNOWN_ARGUMENT},
+     * with a key of which {@code toString()} is the token; see {@link #getSuggestions(String)}.
+     * Any other token that is not the value of a key is reported as positional argument,
+     * and after {@code --} all tokens are, with one call to {@link ArgumentVisitor#onPositionals(List)}.
+     * When a positional argument ends the options, it is reported with all tokens after it in that one call.
+     * @see Arguments.Builder#setPositionalEndsOptions(boolean)
+     * Missing required arguments are reported after the last token,
+     * after looking up the parameters that are absent from the command line in the value sources,
+     * followed by the violations of the rules between arguments.
+     * An argument file that can not be read is reported as {@link Argument.ArgumentError.Type#UNREADABLE_ARGUMENT_FILE}
+     * when it is reached, with a key of which {@code toString()} is the token.
+     * The parse listener of this parser is notified as well.
+     */
+    public void parse(Iterator<String> args, ArgumentVisitor visitor) {
+        ArgumentVisitor listeningVisitor = listening(visitor);
+        if (!argumentFileExpansion) {
+            parseTokens(args, listeningVisitor);
+            return;
+        }
+        ArgumentFileExpander expander = new ArgumentFileExpander(args, listeningVisitor, this);
+        try {
+            parseTokens(expander, listeningVisitor);
+        } finally {
+            expander.close();
+        }
+    }
+
+    private void parseTokens(Iterator<String> tokens, ArgumentVisitor visitor) {
+        if (parseListener == ParseListener.NOOP) {
+            parseArguments(tokens, visitor);
+        } else {
+            long start = System.nanoTime();
+            int tokenCount = parseArguments(tokens, visitor);
+            parseListener.onParseFinished(tokenCount, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * @see #parse(Iterator, ArgumentVisitor)
+     */
+    public void parse(Stream<String> args, ArgumentVisitor visitor) {
+        parse(args.iterator(), visitor);
+    }
+
+    /**
+     * Starts a session for parsing a command line that is edited between parses, like in an interactive shell.
+     * @see ParseSession
+     */
+    public ParseSession startSession() {
+        return new ParseSession(this);
+    }
+
+    ParseListener getParseListener() {
+        return parseListener;
+    }
+
+    /**
+     * @return The visitor, which also reports errors to the parse listener when there is one.
+     */
+    ArgumentVisitor listening(ArgumentVisitor visitor) {
+        return parseListener == ParseListener.NOOP ? visitor : new ListeningVisitor(visitor, parseListener);
+    }
+
+    /**
+     * @return The number of tokens read.
+     */
+    private int parseArguments(Iterator<String> args, ArgumentVisitor visitor) {
+        TokenIterator argIterator = new TokenIterator(args);
+        long[] present = new long[Constraints.maskLength(parameters.size())];
+        while (argIterator.hasNext()) {
+            parseStep(argIterator, present, visitor);
+        }
+        finishParse(present, visitor);
+        return argIterator.getCount();
+    }
+
+    /**
+     * Parses the next token, which is a key with its value, an unknown key, a positional argument,
+     * or {@code --} with all tokens after it. When a positional argument ends the options, the tokens after it are read as well. It may look ahead at the token after it, but does not read it.
+     * @param present The parameters found so far, to which the ones found are added.
+     */
+    void parseStep(TokenIterator argIterator, long[] present, ArgumentVisitor visitor) {
+        String arg = argIterator.next();
+        if (Tokens.isEndOfOptions(arg)) {
+            visitor.onPositionals(argIterator.remaining());
+        } else if (Tokens.isLongKey(arg)) {
+            int parameterIndex = keyIndex.indexOfLongKey(arg, 2, Tokens.longKeyNameEnd(arg));
+            if (parameterIndex == KeyIndex.NOT_FOUND) {
+                parseListener.onUnknownToken(arg);
+                visitor.onError(new UnknownKey(arg.substring(0, Tokens.longKeyNameEnd(arg)), this), Argument.ArgumentError.Type.UNKNOWN_ARGUMENT);
+                return;
+            }
+            Constraints.set(present, parameterIndex);
+            parseListener.onKeyMatched(parameters.get(parameterIndex).getKey());
+            int valueStart = Tokens.attachedValueStart(arg);
+            if (valueStart == Tokens.NO_ATTACHED_VALUE) {
+                addArgument(parameters.get(parameterIndex), argIterator, visitor);
+            } else {
+                addArgumentWithAttachedValue(parameters.get(parameterIndex), arg.substring(valueStart), visitor);
+            }
+        } else if (Tokens.isShortKey(arg)) {
+            int parameterIndex = keyIndex.indexOfShortKey(arg, 1, arg.length());
+            if (parameterIndex != KeyIndex.NOT_FOUND) {
+                Constraints.set(present, parameterIndex);
+                parseListener.onKeyMatched(parameters.get(parameterIndex).getKey());
+                addArgument(parameters.get(parameterIndex), argIterator, visitor);
+            } else if (isBundle(arg)) {
+                for (int i = 1; i < arg.length(); i++) {
+                    int bundledIndex = keyIndex.indexOfShortKey(arg, i, i + 1);
+                    Constraints.set(present, bundledIndex);
+                    parseListener.onKeyMatched(parameters.get(bundledIndex).getKey());
+                    if (i < arg.length() - 1) {
+                        addArgumentWithoutValue(parameters.get(bundledIndex), visitor);
+                    } else {
+                        addArgument(parameters.get(bundledIndex), argIterator, visitor);
+                    }
+                }
+            } else {
+                parseListener.onUnknownToken(arg);
+                visitor.onError(new UnknownKey(arg, this), Argument.ArgumentError.Type.UNKNOWN_ARGUMENT);
+            }
+        } else if (positionalEndsOptions) {
+            visitor.onPositionals(argIterator.remainingFromLast(arg));
+        } else {
+            visitor.onPositional(arg);
+        }
+    }
+
+    /**
+     * Reports the missing required arguments, after looking up the parameters that are absent in the value sources,
+     * and the violations of the rules between arguments.
+     * @param present The parameters found in the tokens, to which the ones found in the value sources are added.
+     */
+    void finishParse(long[] present, ArgumentVisitor visitor) {
+        for (int i = 0; i < parameters.size(); i++) {
+            Argument parameter = parameters.get(i);
+            if (Constraints.isSet(present, i)) {
+                continue;
+            }
+            if (addArgumentFromValueSources(parameter, visitor)) {
+                Constraints.set(present, i);
+            } else if (parameter.isRequired()) {
+                visitor.onError(parameter.getKey(), Argument.ArgumentError.Type.MISSING_ARGUMENT);
+            }
+        }
+        constraints.validate(present, parameters, visitor);
+    }
+
+    /**
+     * Reports the argument for a parameter that is absent from the command line, from the first value source that has a value for it.
+     * @return Whether a value source had a value.
+     */
+    private boolean addArgumentFromValueSources(Argument parameter, ArgumentVisitor visitor) {
+        for (ValueSource valueSource : valueSources) {
+            String value = valueSource.getValue(parameter.getKey());
+            if (value == null) {
+                continue;
+            }
+            if (parameter.getValueType().expectsValue()) {
+                visitor.onValueSource(parameter.getKey(), valueSource);
+                reportValue(parameter, value, visitor);
+                return true;
+            }
+            if ("false".equalsIgnoreCase(value)) {
+                return false;
+            }
+            visitor.onValueSource(parameter.getKey(), valueSource);
+            visitor.onArgument(parameter.getKey(), null);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return Whether every character after the dash of a short key token is a short key by itself, like {@code -abc}.
+     */
+    private boolean isBundle(String arg) {
+        for (int i = 1; i < arg.length(); i++) {
+            if (keyIndex.indexOfShortKey(arg, i, i + 1) == KeyIndex.NOT_FOUND) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Reports the parameter as argument, taking the next token as value when the parameter expects one
+     * and the next token is not a key or {@code --}. After a parameter that expects no value, the next
+     * token is left alone, so a plain token becomes a positional argument.
+     */
+    private static void addArgument(Argument parameter, TokenIterator argIterator, ArgumentVisitor visitor) {
+        if (!argIterator.hasNext()) {
+            visitor.onArgument(parameter.getKey(), null);
+            return;
+        }
+        String argPeeked = argIterator.peek();
+        if (parameter.getKey().isKey(argPeeked) || Tokens.isEndOfOptions(argPeeked)) {
+            addArgumentWithoutValue(parameter, visitor);
+        } else if (parameter.getValueType().expectsValue()) {
+            reportValue(parameter, argPeeked, visitor);
+            argIterator.next();
+        } else {
+            visitor.onArgument(parameter.getKey(), null);
+        }
+    }
+
+    /**
+     * Reports the value, converted once according to the value format of the parameter.
+     */
+    private static void reportValue(Argument parameter, String value, ArgumentVisitor visitor) {
+        long convertedValue;
+        try {
+            convertedValue = parameter.getValueFormat().convert(value);
+        } catch (NumberFormatException e) {
+            visitor.onError(parameter.getKey(), Argument.ArgumentError.Type.INVALID_ARGUMENT_VALUE);
+            return;
+        }
+        switch (parameter.getValueFormat()) {
+            case INT:
+                visitor.onIntArgument(parameter.getKey(), value, (int) convertedValue);
+                break;
+            case LONG:
+                visitor.onLongArgument(parameter.getKey(), value, convertedValue);
+                break;
+            case DOUBLE:
+                visitor.onDoubleArgument(parameter.getKey(), value, Double.longBitsToDouble(convertedValue));
+                break;
+            default:
+                visitor.onArgument(parameter.getKey(), value);
+                break;
+        }
+    }
+
+    private static void addArgumentWithoutValue(Argument parameter, ArgumentVisitor visitor) {
+        if (parameter.getValueType().requiresValue()) {
+            visitor.onError(parameter.getKey(), Argument.ArgumentError.Type.MISSING_ARGUMENT_VALUE);
+        }
+        visitor.onArgument(parameter.getKey(), null);
+    }
+
+    private static void addArgumentWithAttachedValue(Argument parameter, String value, ArgumentVisitor visitor) {
+        if (parameter.getValueType().expectsValue()) {
+            reportValue(parameter, value, visitor);
+        } else {
+            visitor.onError(parameter.getKey(), Argument.ArgumentError.Type.NO_ARGUMENT_VALUE_EXPECTED);
+        }
+    }
+
+    /**
+     * Passes everything on to the visitor, and the errors to the parse listener as well.
+     */
+    private static final class ListeningVisitor implements ArgumentVisitor {
+        private final ArgumentVisitor visitor;
+        private final ParseListener parseListener;
+
+        ListeningVisitor(ArgumentVisitor visitor, ParseListener parseListener) {
+            this.visitor = visitor;
+            this.parseListener = parseListener;
+        }
+
+        @Override
+        public void onArgument(Key key, String value) {
+            visitor.onArgument(key, value);
+        }
+
+        @Override
+        public void onIntArgument(Key key, String value, int convertedValue) {
+            visitor.onIntArgument(key, value, convertedValue);
+        }
+
+        @Override
+        public void onLongArgument(Key key, String value, long convertedValue) {
+            visitor.onLongArgument(key, value, convertedValue);
+        }
+
+        @Override
+        public void onDoubleArgument(Key key, String value, double convertedValue) {
+            visitor.onDoubleArgument(key, value, convertedValue);
+        }
+
+        @Override
+        public void onValueSource(Key key, ValueSource source) {
+            visitor.onValueSource(key, source);
+        }
+
+        @Override
+        public void onPositional(String value) {
+            parseListener.onPositionals(1);
+            visitor.onPositional(value);
+        }
+
+        @Override
+        public void onPositionals(List<String> values) {
+            parseListener.onPositionals(values.size());
+            visitor.onPositionals(values);
+        }
+
+        @Override
+        public void onConstraintViolation(Key key, Argument.ArgumentError.Type type, String description) {
+            parseListener.onError(key, type);
+            visitor.onConstraintViolation(key, type, description);
+        }
+
+        @Override
+        public void onError(Key key, Argument.ArgumentError.Type type) {
+            parseListener.onError(key, type);
+            visitor.onError(key, type);
+        }
+    }
+}
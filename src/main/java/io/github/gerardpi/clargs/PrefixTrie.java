@@ -0,0 +1,125 @@
+package io.github.gerardpi.clargs;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A trie from names to values, for resolving names by exact match or by an unambiguous prefix,
+ * and for listing the names that start with a prefix. Children are kept in sorted arrays, so names are listed in order.
+ */
+final class PrefixTrie<V> {
+    private final Node<V> root = new Node<>();
+
+    /**
+     * @param value Not {@code null}.
+     */
+    void put(String name, V value) {
+        Node<V> existing = root.find(name, name.length());
+        boolean added = existing == null || existing.value == null;
+        Node<V> node = root;
+        if (added) {
+            node.size++;
+        }
+        for (int i = 0; i < name.length(); i++) {
+            node = node.childOrAdd(name.charAt(i));
+            if (added) {
+                node.size++;
+            }
+        }
+        node.name = name;
+        node.value = value;
+    }
+
+    /**
+     * @return The value of the name that equals the prefix, or else of the only name that starts with the prefix,
+     * or {@code null} when there is no such name, or the prefix is empty or ambiguous.
+     */
+    V resolve(String prefix) {
+        if (prefix.isEmpty()) {
+            return null;
+        }
+        Node<V> node = root.find(prefix, prefix.length());
+        if (node == null) {
+            return null;
+        }
+        if (node.value != null) {
+            return node.value;
+        }
+        if (node.size != 1) {
+            return null;
+        }
+        while (node.value == null) {
+            node = node.children[0];
+        }
+        return node.value;
+    }
+
+    /**
+     * @return The names that start with the prefix, in order.
+     */
+    List<String> namesStartingWith(String prefix) {
+        List<String> names = new ArrayList<>();
+        Node<V> node = root.find(prefix, prefix.length());
+        if (node != null) {
+            node.collectNames(names);
+        }
+        return names;
+    }
+
+    private static final class Node<V> {
+        private char[] labels = new char[0];
+        private Node<V>[] children = newArray(0);
+        private String name;
+        private V value;
+        /** The number of names in this node and below it. */
+        private int size;
+
+        Node<V> find(String prefix, int length) {
+            Node<V> node = this;
+            for (int i = 0; i < length && node != null; i++) {
+                node = node.child(prefix.charAt(i));
+            }
+            return node;
+        }
+
+        Node<V> child(char label) {
+            int index = Arrays.binarySearch(labels, label);
+            return index < 0 ? null : children[index];
+        }
+
+        Node<V> childOrAdd(char label) {
+            int index = Arrays.binarySearch(labels, label);
+            if (index >= 0) {
+                return children[index];
+            }
+            int insertAt = -index - 1;
+            Node<V> child = new Node<>();
+            char[] newLabels = new char[labels.length + 1];
+            Node<V>[] newChildren = newArray(children.length + 1);
+            System.arraycopy(labels, 0, newLabels, 0, insertAt);
+            System.arraycopy(children, 0, newChildren, 0, insertAt);
+            newLabels[insertAt] = label;
+            newChildren[insertAt] = child;
+            System.arraycopy(labels, insertAt, newLabels, insertAt + 1, labels.length - insertAt);
+            System.arraycopy(children, insertAt, newChildren, insertAt + 1, children.length - insertAt);
+            labels = newLabels;
+            children = newChildren;
+            return child;
+        }
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        private static <V> Node<V>[] newArray(int length) {
+            return new Node[length];
+        }
+
+        void collectNames(List<String> names) {
+            if (value != null) {
+                names.add(name);
+            }
+            for (Node<V> child : children) {
+                child.collectNames(names);
+            }
+        }
+    }
+}
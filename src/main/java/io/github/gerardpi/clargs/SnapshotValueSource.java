@@ -0,0 +1,148 @@
+package io.github.gerardpi.clargs;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A value source that reads all its values at once, on the first lookup, and keeps that snapshot.
+ * A parser is shared between threads, so the snapshot is created with double-checked locking.
+ * Values are looked up by the long key, so a parameter without a long key has no value in these sources.
+ */
+abstract class SnapshotValueSource implements ValueSource {
+    private final String name;
+    private volatile Map<String, String> snapshot;
+
+    SnapshotValueSource(String name) {
+        this.name = name;
+    }
+
+    @Override
+    public final String getName() {
+        return name;
+    }
+
+    @Override
+    public final String getValue(Key key) {
+        if (key.getLongKey() == null) {
+            return null;
+        }
+        return snapshot().get(lookupName(key));
+    }
+
+    private Map<String, String> snapshot() {
+        Map<String, String> result = snapshot;
+        if (result == null) {
+            synchronized (this) {
+                result = snapshot;
+                if (result == null) {
+                    result = read();
+                    snapshot = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return All values of the source, by lookup name.
+     */
+    abstract Map<String, String> read();
+
+    /**
+     * @param key A key with a long key.
+     */
+    abstract String lookupName(Key key);
+
+    @Override
+    public String toString() {
+        return name;
+    }
+
+    static final class Environment extends SnapshotValueSource {
+        private final String prefix;
+        // The variable names by key, so they are not built again on every parse.
+        private final ConcurrentMap<Key, String> variableNames = new ConcurrentHashMap<>();
+
+        Environment(String prefix) {
+            super("environment");
+            this.prefix = prefix;
+        }
+
+        @Override
+        Map<String, String> read() {
+            return System.getenv();
+        }
+
+        @Override
+        String lookupName(Key key) {
+            String variableName = variableNames.get(key);
+            if (variableName == null) {
+                variableName = prefix + key.getLongKey().toUpperCase(Locale.ROOT).replace('-', '_');
+                variableNames.putIfAbsent(key, variableName);
+            }
+            return variableName;
+        }
+    }
+
+    static final class PropertiesFile extends SnapshotValueSource {
+        private final Path path;
+
+        PropertiesFile(Path path) {
+            super("properties file " + path);
+            this.path = path;
+        }
+
+        @Override
+        Map<String, String> read() {
+            Properties properties = new Properties();
+            try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+                properties.load(reader);
+            } catch (NoSuchFileException e) {
+                return Collections.emptyMap();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Can not read properties file " + path, e);
+            }
+            Map<String, String> values = new HashMap<>();
+            for (String propertyName : properties.stringPropertyNames()) {
+                values.put(propertyName, properties.getProperty(propertyName));
+            }
+            return values;
+        }
+
+        @Override
+        String lookupName(Key key) {
+            return key.getLongKey();
+        }
+    }
+
+    static final class Fixed extends SnapshotValueSource {
+        private final Map<String, String> values;
+
+        Fixed(String name, Map<String, String> values) {
+            super(name);
+            this.values = values;
+        }
+
+        @Override
+        Map<String, String> read() {
+            return new HashMap<>(values);
+        }
+
+        @Override
+        String lookupName(Key key) {
+            return key.getLongKey();
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package io.github.gerardpi.clargs;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.StringJoiner;
+import java.util.function.Supplier;
+
+/**
+ * A set of subcommands, like {@code build} and {@code test} in {@code tool build -v}, each with its own parameters.
+ * <p>
+ * Subcommand names are resolved through a prefix trie, so an unambiguous prefix like {@code bu} also selects {@code build}.
+ * The parameters of a subcommand are supplied lazily and built only once, when the subcommand is first used,
+ * so the cost of startup does not grow with the number of subcommands.
+ * Subcommands objects are thread-safe.
+ */
+public final class Subcommands {
+    private final List<String> names;
+    private final PrefixTrie<LazyArguments> commands;
+
+    private Subcommands(List<String> names, PrefixTrie<LazyArguments> commands) {
+        this.names = names;
+        this.commands = commands;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * @return The names of the subcommands, in the order in which they were added.
+     */
+    public List<String> getNames() {
+        return names;
+    }
+
+    /**
+     * @return The name of the subcommand that equals the given name, or else the only one that starts with it.
+     */
+    public Optional<String> resolve(String nameOrPrefix) {
+        LazyArguments command = commands.resolve(nameOrPrefix);
+        return command == null ? Optional.empty() : Optional.of(command.name);
+    }
+
+    /**
+     * @return The parameters of the subcommand, built when this is called for the first time.
+     */
+    public Optional<Arguments> getArguments(String nameOrPrefix) {
+        LazyArguments command = commands.resolve(nameOrPrefix);
+        return command == null ? Optional.empty() : Optional.of(command.get());
+    }
+
+    boolean isLoaded(String name) {
+        LazyArguments command = commands.resolve(name);
+        return command != null && command.arguments != null;
+    }
+
+    /**
+     * Use this method to parse a command line that starts with a subcommand.
+     * Only the parameters of that subcommand are built; the other tokens are parsed with them,
+     * without copying the command line.
+     * @return The subcommand and its arguments, or nothing when the first token is not a (prefix of a) subcommand name.
+     */
+    public Optional<Invocation> parseArgs(String[] args) {
+        if (args.length == 0) {
+            return Optional.empty();
+        }
+        LazyArguments command = commands.resolve(args[0]);
+        if (command == null) {
+            return Optional.empty();
+        }
+        Arguments arguments = command.get().parseArgs(new ArrayTokens(args, 1));
+        return Optional.of(new Invocation(command.name, arguments));
+    }
+
+    /**
+     * A subcommand found in a command line, with the arguments that followed it.
+     */
+    public static final class Invocation {
+        private final String name;
+        private final Arguments arguments;
+
+        private Invocation(String name, Arguments arguments) {
+            this.name = name;
+            this.arguments = arguments;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public Arguments getArguments() {
+            return arguments;
+        }
+
+        @Override
+        public String toString() {
+            return new StringJoiner(", ", Invocation.class.getSimpleName() + "[", "]")
+                    .add("name='" + name + "'")
+                    .add("arguments=" + arguments)
+                    .toString();
+        }
+    }
+
+    private static final class LazyArguments {
+        private final String name;
+        private final Supplier<Arguments> supplier;
+        private volatile Arguments arguments;
+
+        LazyArguments(String name, Supplier<Arguments> supplier) {
+            this.name = name;
+            this.supplier = supplier;
+        }
+
+        Arguments get() {
+            Arguments result = arguments;
+            if (result == null) {
+                synchronized (this) {
+                    result = arguments;
+                    if (result == null) {
+                        result = Objects.requireNonNull(supplier.get(), "No parameters supplied for subcommand " + name);
+                        arguments = result;
+                    }
+                }
+            }
+            return result;
+        }
+    }
+
+    public static class Builder {
+        private final Map<String, Supplier<Arguments>> commands = new LinkedHashMap<>();
+
+        Builder() {
+        }
+
+        /**
+         * @param parameters Called at most once, when the subcommand is used for the first time.
+         */
+        public Builder add(String name, Supplier<Arguments> parameters) {
+            if (commands.putIfAbsent(name, parameters) != null) {
+                throw new IllegalArgumentException("Subcommand " + name + " was already added");
+            }
+            return this;
+        }
+
+        public Subcommands build() {
+            PrefixTrie<LazyArguments> trie = new PrefixTrie<>();
+            for (Map.Entry<String, Supplier<Arguments>> command : commands.entrySet()) {
+                trie.put(command.getKey(), new LazyArguments(command.getKey(), command.getValue()));
+            }
+            return new Subcommands(Collections.unmodifiableList(new ArrayList<>(commands.keySet())), trie);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package io.github.gerardpi.clargs;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Iterates over command line tokens with one token of lookahead.
+ */
+final class TokenIterator implements Iterator<String> {
+    private final Iterator<String> tokens;
+    private String peeked;
+    private int count;
+
+    TokenIterator(Iterator<String> tokens) {
+        this.tokens = tokens;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return peeked != null || tokens.hasNext();
+    }
+
+    @Override
+    public String next() {
+        count++;
+        if (peeked != null) {
+            String token = peeked;
+            peeked = null;
+            return token;
+        }
+        return tokens.next();
+    }
+
+    /**
+     * @return The number of tokens returned by {@link #next()} so far.
+     */
+    int getCount() {
+        return count;
+    }
+
+    /**
+     * Reads all tokens that are left. When they come from an array, they are not copied,
+     * so handing off any number of them takes constant time.
+     * @return The tokens that are left, read-only.
+     */
+    List<String> remaining() {
+        if (peeked == null && tokens instanceof ArrayTokens) {
+            List<String> remaining = ((ArrayTokens) tokens).remaining(false);
+            count += remaining.size();
+            return remaining;
+        }
+        ValueList remaining = new ValueList();
+        while (hasNext()) {
+            remaining.append(next());
+        }
+        return remaining;
+    }
+
+    /**
+     * Like {@link #remaining()}, preceded by the token that {@link #next()} returned last.
+     * @param last That token, to copy when the tokens do not come from an array.
+     */
+    List<String> remainingFromLast(String last) {
+        if (peeked == null && tokens instanceof ArrayTokens) {
+            List<String> remaining = ((ArrayTokens) tokens).remaining(true);
+            count += remaining.size() - 1;
+            return remaining;
+        }
+        ValueList remaining = new ValueList();
+        remaining.append(last);
+        while (hasNext()) {
+            remaining.append(next());
+        }
+        return remaining;
+    }
+
+    /**
+     * @return The token that {@link #next()} will return, without advancing.
+     */
+    String peek() {
+        if (peeked == null) {
+            if (!tokens.hasNext()) {
+                throw new NoSuchElementException();
+            }
+            peeked = tokens.next();
+        }
+        return peeked;
+    }
+}
@@ -0,0 +1,84 @@
+package io.github.gerardpi.clargs;
+
+/**
+ * Classifies command line tokens by scanning their characters once, without regular expressions or substrings.
+ * <ul>
+ *     <li>{@code -k} is a short key, and {@code -abc} is either a short key or a bundle of the short keys
+ *     {@code a}, {@code b} and {@code c}</li>
+ *     <li>{@code --kaas} is a long key, and {@code --kaas=edammer} is a long key with an attached value</li>
+ *     <li>{@code --} ends the options: every token after it is a positional argument</li>
+ *     <li>anything else, like {@code edammer}, {@code -5} or {@code -}, is a value</li>
+ * </ul>
+ * A key name starts with a letter, followed by letters, digits, {@code -} or {@code _}.
+ */
+final class Tokens {
+    static final int NO_ATTACHED_VALUE = -1;
+    static final String END_OF_OPTIONS = "--";
+
+    private Tokens() {
+        // Utility class
+    }
+
+    static boolean isKey(String token) {
+        return isShortKey(token) || isLongKey(token);
+    }
+
+    static boolean isEndOfOptions(String token) {
+        return END_OF_OPTIONS.equals(token);
+    }
+
+    /**
+     * @return Whether the token is a single dash followed by a key name, like {@code -k} or {@code -abc}.
+     */
+    static boolean isShortKey(String token) {
+        int length = token.length();
+        return length > 1 && token.charAt(0) == '-' && nameEnd(token, 1) == length;
+    }
+
+    /**
+     * @return Whether the token is a double dash followed by a key name and optionally {@code =} and a value.
+     */
+    static boolean isLongKey(String token) {
+        int length = token.length();
+        if (length < 3 || token.charAt(0) != '-' || token.charAt(1) != '-') {
+            return false;
+        }
+        int end = nameEnd(token, 2);
+        return end == length || (end > 2 && token.charAt(end) == '=');
+    }
+
+    /**
+     * @return The end (exclusive) of the name of a long key token, which is where the {@code =} is when a value is attached.
+     */
+    static int longKeyNameEnd(String token) {
+        return nameEnd(token, 2);
+    }
+
+    /**
+     * @return The index of the first character of the value attached to a long key token, or {@link #NO_ATTACHED_VALUE}.
+     */
+    static int attachedValueStart(String token) {
+        int end = nameEnd(token, 2);
+        return end < token.length() ? end + 1 : NO_ATTACHED_VALUE;
+    }
+
+    /**
+     * @return The index of the first character from {@code start} that can not be part of a key name,
+     * or {@code start} when the name does not start with a letter.
+     */
+    private static int nameEnd(String token, int start) {
+        int length = token.length();
+        if (start >= length || !Character.isLetter(token.charAt(start))) {
+            return start;
+        }
+        int i = start + 1;
+        while (i < length && isNamePart(token.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    private static boolean isNamePart(char c) {
+        return Character.isLetterOrDigit(c) || c == '-' || c == '_';
+    }
+}
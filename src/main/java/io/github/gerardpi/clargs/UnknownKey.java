@@ -0,0 +1,43 @@
+package io.github.gerardpi.clargs;
+
+import java.util.List;
+
+/**
+ * The key of an {@link Argument.ArgumentError.Type#UNKNOWN_ARGUMENT} error: a token that looks like a key,
+ * e.g. {@code --kaaz}, but matches no parameter; or of an {@link Argument.ArgumentError.Type#UNREADABLE_ARGUMENT_FILE} error:
+ * a token like {@code @args.txt}, which has neither a short nor a long key. Its {@link #toString()} is the token.
+ * It is passed to {@link ArgumentVisitor#onError(Key, Argument.ArgumentError.Type)}, which documents what callers can rely on.
+ * The suggestions are looked up when they are asked for.
+ */
+final class UnknownKey implements Key {
+    private final String token;
+    private final Parser parser;
+
+    UnknownKey(String token, Parser parser) {
+        this.token = token;
+        this.parser = parser;
+    }
+
+    String getToken() {
+        return token;
+    }
+
+    List<String> getSuggestions() {
+        return parser.getSuggestions(token);
+    }
+
+    @Override
+    public String getShortKey() {
+        return token.startsWith("--") || !token.startsWith("-") ? null : token.substring(1);
+    }
+
+    @Override
+    public String getLongKey() {
+        return token.startsWith("--") ? token.substring(2) : null;
+    }
+
+    @Override
+    public String toString() {
+        return token;
+    }
+}
@@ -0,0 +1,105 @@
+package io.github.gerardpi.clargs;
+
+import java.util.List;
+
+/**
+ * Renders the usage text of a parameter list, with one line per parameter in aligned columns:
+ * <pre>
+ * -k, --kaas   &lt;text&gt;        required  The cheese
+ * -w, --worst  [&lt;integer&gt;]             The sausage
+ * </pre>
+ * A value that is required is shown as {@code <format>}, an optional value as {@code [<format>]}.
+ */
+final class Usage {
+    private static final String COLUMN_SEPARATOR = "  ";
+    private static final String REQUIRED = "required";
+
+    private Usage() {
+        // Utility class
+    }
+
+    static String render(List<Argument> parameters) {
+        int parameterCount = parameters.size();
+        String[] keys = new String[parameterCount];
+        String[] values = new String[parameterCount];
+        int keysWidth = 0;
+        int valuesWidth = 0;
+        boolean anyRequired = false;
+        for (int i = 0; i < parameterCount; i++) {
+            Argument parameter = parameters.get(i);
+            keys[i] = keys(parameter.getKey(), ", ");
+            values[i] = valueColumn(parameter);
+            keysWidth = Math.max(keysWidth, keys[i].length());
+            valuesWidth = Math.max(valuesWidth, values[i].length());
+            anyRequired |= parameter.isRequired();
+        }
+        String lineSeparator = System.lineSeparator();
+        StringBuilder usage = new StringBuilder();
+        for (int i = 0; i < parameterCount; i++) {
+            Argument parameter = parameters.get(i);
+            int lineStart = usage.length();
+            appendColumn(usage, keys[i], keysWidth);
+            if (valuesWidth > 0) {
+                appendColumn(usage, values[i], valuesWidth);
+            }
+            if (anyRequired) {
+                appendColumn(usage, parameter.isRequired() ? REQUIRED : "", REQUIRED.length());
+            }
+            if (parameter.getDescription() != null) {
+                usage.append(parameter.getDescription());
+            }
+            trimTrailingSpaces(usage, lineStart);
+            usage.append(lineSeparator);
+        }
+        return usage.toString();
+    }
+
+    /**
+     * @return The parameters in the format of {@link Argument#displayValue()}, one per line.
+     */
+    static String displayValue(List<Argument> parameters) {
+        StringBuilder displayValue = new StringBuilder();
+        for (Argument parameter : parameters) {
+            if (displayValue.length() > 0) {
+                displayValue.append(System.lineSeparator());
+            }
+            displayValue.append(parameter.displayValue());
+        }
+        return displayValue.toString();
+    }
+
+    /**
+     * @return The short and the long key with their dashes, like {@code -k, --kaas} for separator {@code ", "},
+     * leaving out the one that the key does not have.
+     */
+    static String keys(Key key, String separator) {
+        if (key.getShortKey() == null) {
+            return "--" + key.getLongKey();
+        }
+        return key.getLongKey() == null ? "-" + key.getShortKey() : "-" + key.getShortKey() + separator + "--" + key.getLongKey();
+    }
+
+    private static String valueColumn(Argument parameter) {
+        if (!parameter.getValueType().expectsValue()) {
+            return "";
+        }
+        String value = "<" + parameter.getValueFormat().getDisplayValue() + ">";
+        return parameter.getValueType().requiresValue() ? value : "[" + value + "]";
+    }
+
+    private static void appendColumn(StringBuilder usage, String text, int width) {
+        usage.append(text);
+        for (int i = text.length(); i < width; i++) {
+            usage.append(' ');
+        }
+        usage.append(COLUMN_SEPARATOR);
+    }
+
+    private static void trimTrailingSpaces(StringBuilder usage, int lineStart) {
+        int end = usage.length();
+        while (end > lineStart && usage.charAt(end - 1) == ' ') {
+            end--;
+        }
+        usage.setLength(end);
+    }
+}
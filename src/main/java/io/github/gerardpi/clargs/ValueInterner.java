@@ -0,0 +1,29 @@
+package io.github.gerardpi.clargs;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.UnaryOperator;
+
+/**
+ * Returns one shared instance for equal values, for values kept by many parse results at once.
+ * Unlike {@link String#intern()}, the instances are released together with the interner.
+ */
+final class ValueInterner implements UnaryOperator<String> {
+    /**
+     * Keeps every value as it is. Not {@link UnaryOperator#identity()}, which would load the lambda classes at startup.
+     */
+    static final UnaryOperator<String> NONE = new UnaryOperator<String>() {
+        @Override
+        public String apply(String value) {
+            return value;
+        }
+    };
+
+    private final ConcurrentMap<String, String> values = new ConcurrentHashMap<>();
+
+    @Override
+    public String apply(String value) {
+        String shared = values.putIfAbsent(value, value);
+        return shared == null ? value : shared;
+    }
+}
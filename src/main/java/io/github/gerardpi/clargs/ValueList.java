@@ -0,0 +1,44 @@
+package io.github.gerardpi.clargs;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+
+/**
+ * The values of a multi-valued argument, packed in an array that grows geometrically.
+ * Callers get this list itself as a read-only view, so reading the values does not copy them.
+ */
+final class ValueList extends AbstractList<String> implements RandomAccess {
+    private static final int INITIAL_CAPACITY = 8;
+
+    private String[] values = new String[INITIAL_CAPACITY];
+    private int size;
+
+    void append(String value) {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size * 2);
+        }
+        values[size++] = value;
+    }
+
+    /**
+     * Removes the values from the index on.
+     */
+    void truncate(int newSize) {
+        Arrays.fill(values, newSize, size, null);
+        size = newSize;
+    }
+
+    @Override
+    public String get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + ", size " + size);
+        }
+        return values[index];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+}
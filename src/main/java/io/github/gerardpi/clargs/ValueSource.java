@@ -0,0 +1,49 @@
+package io.github.gerardpi.clargs;
+
+import java.nio.file.Path;
+import java.util.Map;
+
+/**
+ * A source of values for parameters that are not given on the command line, like environment variables or a properties file.
+ * Value sources are consulted in the order in which they are added, and only for parameters that are absent from the command line.
+ * <p>
+ * The sources created here read everything once, on the first lookup, and keep that snapshot for later parses.
+ * They look values up by the long key, so they have no value for a parameter that only has a short key.
+ *
+ * @see Arguments.Builder#addValueSource(ValueSource)
+ * @see Arguments#getValueSource(Key)
+ */
+public interface ValueSource {
+    /**
+     * @return A name for the source, to tell where a value came from, e.g. {@code environment}.
+     */
+    String getName();
+
+    /**
+     * @return The value for the parameter with the given key, or {@code null} when the source has none.
+     */
+    String getValue(Key key);
+
+    /**
+     * Looks up the environment variable named after the long key in upper case, with {@code -} replaced by {@code _}
+     * and prefixed with the given prefix: for prefix {@code APP_} and long key {@code log-level}, {@code APP_LOG_LEVEL}.
+     */
+    static ValueSource environment(String prefix) {
+        return new SnapshotValueSource.Environment(prefix);
+    }
+
+    /**
+     * Looks up the property named after the long key in a properties file, read as UTF-8.
+     * A file that does not exist is treated as empty.
+     */
+    static ValueSource properties(Path path) {
+        return new SnapshotValueSource.PropertiesFile(path);
+    }
+
+    /**
+     * Looks up the long key in the given map, which is copied on the first lookup.
+     */
+    static ValueSource map(String name, Map<String, String> values) {
+        return new SnapshotValueSource.Fixed(name, values);
+    }
+}
@@ -0,0 +1,212 @@
+package io.github.gerardpi.clargs.processor;
+
+import io.github.gerardpi.clargs.Argument;
+import io.github.gerardpi.clargs.GenerateParser;
+import io.github.gerardpi.clargs.Key;
+import io.github.gerardpi.clargs.Parameter;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Generates a parser class for each {@link GenerateParser} enum.
+ * The generated parser resolves tokens with a {@code switch} on strings and converts values into typed fields,
+ * following the same rules as {@link io.github.gerardpi.clargs.Parser}, and reporting the same errors, except that:
+ * <ul>
+ *     <li>bundled short keys, like {@code -abc} for {@code -a -b -c}, are not supported</li>
+ *     <li>unknown keys are reported without suggestions</li>
+ *     <li>positional arguments are skipped, and {@code --} is not recognized</li>
+ *     <li>value sources and rules between arguments are not supported</li>
+ * </ul>
+ * Two parameters with the same short or long key are reported as a compile error, and so is an enum constant
+ * that gives a field name that is a Java keyword or clashes with another member, like {@code ERRORS} or {@code NEW}.
+ * <p>
+ * The processor is not registered as a service, so it does not run in every build that has clargs on the class path.
+ * Name it explicitly, with {@code -processor io.github.gerardpi.clargs.processor.ParserProcessor}.
+ */
+public class ParserProcessor extends AbstractProcessor {
+    static final String ERRORS_FIELD = "errors";
+    static final String PRESENT_SUFFIX = "Present";
+
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+        return Collections.singleton(GenerateParser.class.getName());
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (Element element : roundEnv.getElementsAnnotatedWith(GenerateParser.class)) {
+            if (element.getKind() != ElementKind.ENUM || !implementsKey((TypeElement) element)) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                        "@" + GenerateParser.class.getSimpleName() + " only applies to an enum that implements " + Key.class.getName(), element);
+                continue;
+            }
+            try {
+                generate((TypeElement) element);
+            } catch (IOException e) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Can not generate parser: " + e.getMessage(), element);
+            }
+        }
+        return true;
+    }
+
+    private boolean implementsKey(TypeElement enumElement) {
+        TypeMirror keyType = processingEnv.getElementUtils().getTypeElement(Key.class.getName()).asType();
+        return processingEnv.getTypeUtils().isAssignable(enumElement.asType(), keyType);
+    }
+
+    private void generate(TypeElement enumElement) throws IOException {
+        List<ParameterModel> parameters = new ArrayList<>();
+        Set<String> keys = new HashSet<>();
+        Set<String> names = new HashSet<>(Collections.singleton(ERRORS_FIELD));
+        boolean invalid = false;
+        for (Element enclosed : enumElement.getEnclosedElements()) {
+            Parameter parameter = enclosed.getAnnotation(Parameter.class);
+            if (enclosed.getKind() == ElementKind.ENUM_CONSTANT && parameter != null) {
+                ParameterModel model = new ParameterModel(enclosed.getSimpleName().toString(), parameter);
+                invalid |= !addKey(keys, "-" + parameter.shortKey(), enclosed);
+                invalid |= !addKey(keys, "--" + parameter.longKey(), enclosed);
+                invalid |= !addNames(names, model.field, enclosed);
+                parameters.add(model);
+            }
+        }
+        if (invalid) {
+            return;
+        }
+        PackageElement packageElement = processingEnv.getElementUtils().getPackageOf(enumElement);
+        String packageName = packageElement.isUnnamed() ? "" : packageElement.getQualifiedName().toString();
+        String parserName = parserName(enumElement);
+        String qualifiedParserName = packageName.isEmpty() ? parserName : packageName + "." + parserName;
+        JavaFileObject sourceFile = processingEnv.getFiler().createSourceFile(qualifiedParserName, enumElement);
+        try (Writer writer = sourceFile.openWriter()) {
+            new ParserWriter(new PrintWriter(writer), packageName, enumElement.getQualifiedName().toString(), parserName, parameters).write();
+        }
+    }
+
+    /**
+     * @return Whether the key was not taken yet; otherwise it is reported as error, as it would give a duplicate {@code case} label.
+     */
+    private boolean addKey(Set<String> keys, String key, Element constant) {
+        if (keys.add(key)) {
+            return true;
+        }
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Key " + key + " is used by more than one parameter", constant);
+        return false;
+    }
+
+    /**
+     * @return Whether the field name of the parameter is a valid Java name that is not taken yet;
+     * otherwise it is reported as error. The field, and with it the {@code has} and {@code get} accessors,
+     * must not be a keyword like {@code new}, or clash with {@code getErrors()} or with the members of another parameter.
+     */
+    private boolean addNames(Set<String> names, String field, Element constant) {
+        if (!SourceVersion.isName(field)) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "Parameter " + constant + " gives the field name '" + field + "', which is not a valid Java name", constant);
+            return false;
+        }
+        if (!names.add(field) | !names.add(field + PRESENT_SUFFIX)) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "Parameter " + constant + " gives the field name '" + field + "', which is already used in the generated parser", constant);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * @return For enum {@code ArgKey} nested in class {@code Cli}, {@code Cli_ArgKeyParser}.
+     */
+    private static String parserName(TypeElement enumElement) {
+        StringBuilder name = new StringBuilder(enumElement.getSimpleName()).append("Parser");
+        Element enclosing = enumElement.getEnclosingElement();
+        while (enclosing.getKind().isClass() || enclosing.getKind().isInterface()) {
+            name.insert(0, enclosing.getSimpleName() + "_");
+            enclosing = enclosing.getEnclosingElement();
+        }
+        return name.toString();
+    }
+
+    static final class ParameterModel {
+        final String constant;
+        final String field;
+        final String shortKey;
+        final String longKey;
+        final boolean required;
+        final Argument.ValueType valueType;
+        final Argument.ValueFormat valueFormat;
+        final String displayValue;
+
+        ParameterModel(String constant, Parameter parameter) {
+            this.constant = constant;
+            this.field = camelCase(constant);
+            this.shortKey = parameter.shortKey();
+            this.longKey = parameter.longKey();
+            this.required = parameter.required();
+            this.valueType = parameter.valueType();
+            this.valueFormat = parameter.valueFormat();
+            this.displayValue = Argument.builder()
+                    .setKey(new CompileTimeKey(shortKey, longKey))
+                    .setRequired(required)
+                    .setValueType(valueType)
+                    .setValueFormat(valueFormat)
+                    .setDescription(parameter.description().isEmpty() ? null : parameter.description())
+                    .build()
+                    .displayValue();
+        }
+
+        private static String camelCase(String constant) {
+            StringBuilder field = new StringBuilder();
+            boolean upper = false;
+            for (char c : constant.toCharArray()) {
+                if (c == '_') {
+                    upper = field.length() > 0;
+                } else {
+                    field.append(upper ? Character.toUpperCase(c) : Character.toLowerCase(c));
+                    upper = false;
+                }
+            }
+            return field.toString();
+        }
+    }
+
+    private static final class CompileTimeKey implements Key {
+        private final String shortKey;
+        private final String longKey;
+
+        CompileTimeKey(String shortKey, String longKey) {
+            this.shortKey = shortKey;
+            this.longKey = longKey;
+        }
+
+        @Override
+        public String getShortKey() {
+            return shortKey;
+        }
+
+        @Override
+        public String getLongKey() {
+            return longKey;
+        }
+    }
+}
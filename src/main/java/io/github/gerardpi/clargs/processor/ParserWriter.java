@@ -0,0 +1,216 @@
+package io.github.gerardpi.clargs.processor;
+
+import io.github.gerardpi.clargs.Argument;
+
+import java.io.PrintWriter;
+import java.util.List;
+
+/**
+ * Writes the source of a parser generated for a {@link io.github.gerardpi.clargs.GenerateParser} enum.
+ */
+final class ParserWriter {
+    private final PrintWriter out;
+    private final String packageName;
+    private final String enumName;
+    private final String parserName;
+    private final List<ParserProcessor.ParameterModel> parameters;
+
+    ParserWriter(PrintWriter out, String packageName, String enumName, String parserName, List<ParserProcessor.ParameterModel> parameters) {
+        this.out = out;
+        this.packageName = packageName;
+        this.enumName = enumName;
+        this.parserName = parserName;
+        this.parameters = parameters;
+    }
+
+    void write() {
+        if (!packageName.isEmpty()) {
+            out.println("package " + packageName + ";");
+            out.println();
+        }
+        out.println("import io.github.gerardpi.clargs.Argument;");
+        out.println();
+        out.println("import java.util.ArrayList;");
+        out.println("import java.util.Collections;");
+        out.println("import java.util.List;");
+        out.println();
+        out.println("/**");
+        out.println(" * Parser for {@link " + enumName + "}, generated by " + ParserProcessor.class.getName() + ".");
+        out.println(" */");
+        out.println("public final class " + parserName + " {");
+        out.println("    private final List<Argument.ArgumentError> " + ParserProcessor.ERRORS_FIELD + " = new ArrayList<>();");
+        for (ParserProcessor.ParameterModel parameter : parameters) {
+            out.println("    private boolean " + parameter.field + ParserProcessor.PRESENT_SUFFIX + ";");
+            if (parameter.valueType.expectsValue()) {
+                out.println("    private " + javaType(parameter.valueFormat) + " " + parameter.field + ";");
+            }
+        }
+        out.println();
+        out.println("    private " + parserName + "() {");
+        out.println("    }");
+        out.println();
+        out.println("    public static " + parserName + " parse(String[] args) {");
+        out.println("        " + parserName + " parser = new " + parserName + "();");
+        out.println("        parser.parseArgs(args);");
+        out.println("        return parser;");
+        out.println("    }");
+        out.println();
+        writeParseArgs();
+        writeAccessors();
+        out.println("    public boolean hasErrors() {");
+        out.println("        return !errors.isEmpty();");
+        out.println("    }");
+        out.println();
+        out.println("    public List<Argument.ArgumentError> getErrors() {");
+        out.println("        return Collections.unmodifiableList(errors);");
+        out.println("    }");
+        out.println();
+        out.println("    private void error(Argument.ArgumentError.Type type, String message) {");
+        out.println("        errors.add(new Argument.ArgumentError(type, message));");
+        out.println("    }");
+        out.println("}");
+        out.flush();
+    }
+
+    private void writeParseArgs() {
+        out.println("    private void parseArgs(String[] args) {");
+        out.println("        int i = 0;");
+        out.println("        while (i < args.length) {");
+        out.println("            String arg = args[i++];");
+        out.println("            String value = null;");
+        out.println("            int equals = arg.startsWith(\"--\") ? arg.indexOf('=') : -1;");
+        out.println("            if (equals > 2) {");
+        out.println("                value = arg.substring(equals + 1);");
+        out.println("                arg = arg.substring(0, equals);");
+        out.println("            }");
+        out.println("            switch (arg) {");
+        for (ParserProcessor.ParameterModel parameter : parameters) {
+            out.println("                case " + literal("-" + parameter.shortKey) + ":");
+            out.println("                case " + literal("--" + parameter.longKey) + ":");
+            out.println("                    this." + parameter.field + ParserProcessor.PRESENT_SUFFIX + " = true;");
+            String isKey = enumName + "." + parameter.constant + ".isKey(args[i])";
+            if (parameter.valueType.expectsValue()) {
+                out.println("                    if (value == null && i < args.length && !" + isKey + ") {");
+                out.println("                        value = args[i++];");
+                out.println("                    }");
+                out.println("                    if (value != null) {");
+                writeConversion(parameter, "                        ");
+                if (parameter.valueType.requiresValue()) {
+                    out.println("                    } else if (i < args.length) {");
+                    writeError(parameter, Argument.ArgumentError.Type.MISSING_ARGUMENT_VALUE, "                        ");
+                }
+                out.println("                    }");
+            } else {
+                out.println("                    if (value != null) {");
+                writeError(parameter, Argument.ArgumentError.Type.NO_ARGUMENT_VALUE_EXPECTED, "                        ");
+                out.println("                    }");
+            }
+            out.println("                    break;");
+        }
+        out.println("                default:");
+        if (!parameters.isEmpty()) {
+            String isKey = enumName + "." + parameters.get(0).constant + ".isKey(arg)";
+            Argument.ArgumentError.Type unknown = Argument.ArgumentError.Type.UNKNOWN_ARGUMENT;
+            out.println("                    if (" + isKey + ") {");
+            out.println("                        error(Argument.ArgumentError.Type." + unknown.name() + ", " + literal(unknown.getMessagePrefix()) + " + arg);");
+            out.println("                    }");
+        }
+        out.println("                    break;");
+        out.println("            }");
+        out.println("        }");
+        for (ParserProcessor.ParameterModel parameter : parameters) {
+            if (parameter.required) {
+                out.println("        if (!this." + parameter.field + ParserProcessor.PRESENT_SUFFIX + ") {");
+                writeError(parameter, Argument.ArgumentError.Type.MISSING_ARGUMENT, "            ");
+                out.println("        }");
+            }
+        }
+        out.println("    }");
+        out.println();
+    }
+
+    private void writeConversion(ParserProcessor.ParameterModel parameter, String indent) {
+        if (parameter.valueFormat == Argument.ValueFormat.STRING) {
+            out.println(indent + "this." + parameter.field + " = value;");
+            return;
+        }
+        out.println(indent + "try {");
+        out.println(indent + "    this." + parameter.field + " = " + conversion(parameter.valueFormat) + "(value);");
+        out.println(indent + "} catch (NumberFormatException e) {");
+        writeError(parameter, Argument.ArgumentError.Type.INVALID_ARGUMENT_VALUE, indent + "    ");
+        out.println(indent + "}");
+    }
+
+    private void writeError(ParserProcessor.ParameterModel parameter, Argument.ArgumentError.Type type, String indent) {
+        out.println(indent + "error(Argument.ArgumentError.Type." + type.name() + ", " + literal(type.getMessagePrefix() + parameter.displayValue) + ");");
+    }
+
+    private void writeAccessors() {
+        for (ParserProcessor.ParameterModel parameter : parameters) {
+            String suffix = Character.toUpperCase(parameter.field.charAt(0)) + parameter.field.substring(1);
+            out.println("    public boolean has" + suffix + "() {");
+            out.println("        return " + parameter.field + ParserProcessor.PRESENT_SUFFIX + ";");
+            out.println("    }");
+            out.println();
+            if (parameter.valueType.expectsValue()) {
+                out.println("    public " + javaType(parameter.valueFormat) + " get" + suffix + "() {");
+                out.println("        return " + parameter.field + ";");
+                out.println("    }");
+                out.println();
+            }
+        }
+    }
+
+    private static String javaType(Argument.ValueFormat valueFormat) {
+        switch (valueFormat) {
+            case INT:
+                return "int";
+            case LONG:
+                return "long";
+            case DOUBLE:
+                return "double";
+            default:
+                return "String";
+        }
+    }
+
+    private static String conversion(Argument.ValueFormat valueFormat) {
+        switch (valueFormat) {
+            case INT:
+                return "Integer.parseInt";
+            case LONG:
+                return "Long.parseLong";
+            case DOUBLE:
+                return "Double.parseDouble";
+            default:
+                throw new IllegalArgumentException("No conversion for " + valueFormat);
+        }
+    }
+
+    private static String literal(String value) {
+        StringBuilder literal = new StringBuilder("\"");
+        for (char c : value.toCharArray()) {
+            switch (c) {
+                case '"':
+                    literal.append("\\\"");
+                    break;
+                case '\\':
+                    literal.append("\\\\");
+                    break;
+                case '\n':
+                    literal.append("\\n");
+                    break;
+                case '\r':
+                    literal.append("\\r");
+                    break;
+                default:
+                    if (c < ' ' || c > '~') {
+                        literal.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        literal.append(c);
+                    }
+            }
+        }
+        return literal.append('"').toString();
+    }
+}
@@ -0,0 +1,143 @@
+package io.github.gerardpi.clargs;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class ArgumentFileReaderTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void tokens_are_delimited_by_newlines_and_nul_characters() throws IOException {
+        Path file = write("-k\r\nedammer\n\n-w\u0000knäck\u0000\n-t");
+        assertThat(readAll(ArgumentFileReader.open(file))).containsExactly("-k", "edammer", "-w", "knäck", "-t");
+    }
+
+    @Test
+    void tokens_spanning_windows_are_read_completely() throws IOException {
+        Path file = write("first\nsecond-token-longer-than-the-window\nthird");
+        assertThat(readAll(ArgumentFileReader.open(file, 4))).containsExactly("first", "second-token-longer-than-the-window", "third");
+    }
+
+    @Test
+    void empty_file_has_no_tokens() throws IOException {
+        assertThat(readAll(ArgumentFileReader.open(write("")))).isEmpty();
+    }
+
+    @Test
+    void argument_files_are_expanded_while_parsing() throws IOException {
+        Path file = write("-k\nedammer\n");
+        Arguments arguments = Arguments.builder()
+                .add(Argument.builder().setKey(ArgumentsTest.ArgumentKey.KAAS).setValueRequired().build())
+                .add(Argument.builder().setKey(ArgumentsTest.ArgumentKey.TOPPING).build())
+                .setArgumentFileExpansion(true)
+                .build()
+                .parseArgs(new String[]{"@" + file, "-t"});
+        assertThat(arguments.getValue(ArgumentsTest.ArgumentKey.KAAS)).hasValue("edammer");
+        assertThat(arguments.hasArgument(ArgumentsTest.ArgumentKey.TOPPING)).isTrue();
+        assertThat(arguments.hasErrors()).isFalse();
+    }
+
+    @Test
+    void empty_argument_files_are_skipped() throws IOException {
+        Path file = write("");
+        assertThat(parser().parse(new String[]{"@" + file, "-t", "@" + file}).get())
+                .extracting(Argument::getKey)
+                .containsExactly(ArgumentsTest.ArgumentKey.TOPPING);
+    }
+
+    @Test
+    void an_argument_file_that_can_not_be_read_is_an_error() {
+        Path missing = tempDir.resolve("missing.txt");
+        Arguments arguments = parser().parse(new String[]{"@" + missing, "-t"});
+
+        assertThat(arguments.getArgumentsWithErrors())
+                .extracting(argument -> argument.getError().getType(), argument -> argument.getError().getMessage())
+                .containsExactly(tuple(Argument.ArgumentError.Type.UNREADABLE_ARGUMENT_FILE, "Can not read argument file " + missing));
+        assertThat(arguments.hasArgument(ArgumentsTest.ArgumentKey.TOPPING)).isTrue();
+    }
+
+    @Test
+    void tokens_after_the_end_of_options_and_escaped_tokens_are_not_expanded() throws IOException {
+        Path file = write("-t\n");
+        Arguments arguments = parser().parse(new String[]{"-k", "@@edammer", "--", "@" + file, "@@kaas"});
+
+        assertThat(arguments.hasErrors()).isFalse();
+        assertThat(arguments.getValue(ArgumentsTest.ArgumentKey.KAAS)).hasValue("@edammer");
+        assertThat(arguments.hasArgument(ArgumentsTest.ArgumentKey.TOPPING)).isFalse();
+        assertThat(arguments.getPositionals()).containsExactly("@" + file, "@@kaas");
+    }
+
+    @Test
+    void argument_file_is_closed_when_parsing_stops_early() throws IOException {
+        Path fileDescriptors = Paths.get("/proc/self/fd");
+        assumeTrue(Files.isDirectory(fileDescriptors), "Open files can only be listed on Linux");
+        Path file = write("-k\nedammer\n-t\n");
+        Parser parser = Arguments.builder()
+                .add(Argument.builder().setKey(ArgumentsTest.ArgumentKey.KAAS).setValueRequired().build())
+                .add(Argument.builder().setKey(ArgumentsTest.ArgumentKey.TOPPING).build())
+                .setArgumentFileExpansion(true)
+                .buildParser();
+        assertThatThrownBy(() -> parser.parse(Arrays.asList("@" + file).iterator(), new ArgumentVisitor() {
+            @Override
+            public void onArgument(Key key, String value) {
+                throw new IllegalStateException("Stop at " + key);
+            }
+
+            @Override
+            public void onError(Key key, Argument.ArgumentError.Type type) {
+            }
+        })).isInstanceOf(IllegalStateException.class);
+        assertThat(openFiles(fileDescriptors)).doesNotContain(file.toRealPath());
+    }
+
+    private static Parser parser() {
+        return Arguments.builder()
+                .add(Argument.builder().setKey(ArgumentsTest.ArgumentKey.KAAS).setValueRequired().build())
+                .add(Argument.builder().setKey(ArgumentsTest.ArgumentKey.TOPPING).build())
+                .setArgumentFileExpansion(true)
+                .buildParser();
+    }
+
+    private static List<Path> openFiles(Path fileDescriptors) throws IOException {
+        List<Path> openFiles = new ArrayList<>();
+        try (DirectoryStream<Path> descriptors = Files.newDirectoryStream(fileDescriptors)) {
+            for (Path descriptor : descriptors) {
+                try {
+                    openFiles.add(Files.readSymbolicLink(descriptor));
+                } catch (IOException e) {
+                    // Closed while listing, like the descriptor of the listing itself.
+                }
+            }
+        }
+        return openFiles;
+    }
+
+    private Path write(String content) throws IOException {
+        Path file = Files.createTempFile(tempDir, "args", ".txt");
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    private static List<String> readAll(Iterator<String> tokens) {
+        List<String> result = new ArrayList<>();
+        tokens.forEachRemaining(result::add);
+        return result;
+    }
+}
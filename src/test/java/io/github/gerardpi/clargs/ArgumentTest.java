@@ -0,0 +1,32 @@
+package io.github.gerardpi.clargs;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ArgumentTest {
+    private final Argument worst = Argument.builder()
+            .setKey(ArgumentsTest.ArgumentKey.WORST)
+            .setValueRequired()
+            .setValueFormat(Argument.ValueFormat.INT)
+            .build();
+
+    @Test
+    void a_value_that_is_set_is_converted() {
+        assertThat(worst.withValue("42").getIntValue()).isEqualTo(42);
+        assertThat(worst.withValue("42").getLongValue()).isEqualTo(42L);
+        assertThat(Argument.builder().setKey(ArgumentsTest.ArgumentKey.KAAS).setValueFormat(Argument.ValueFormat.DOUBLE)
+                .setValue("1.5").build().getDoubleValue()).isEqualTo(1.5);
+    }
+
+    @Test
+    void a_value_that_can_not_be_converted_is_rejected_with_the_key() {
+        assertThatThrownBy(() -> worst.withValue("veel"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid integer value 'veel' for argument 'WORST'");
+        assertThatThrownBy(() -> Argument.builder().setKey(ArgumentsTest.ArgumentKey.WORST).setValueFormat(Argument.ValueFormat.LONG).setValue("veel").build())
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("'WORST'");
+    }
+}
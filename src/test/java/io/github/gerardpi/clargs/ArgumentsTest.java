@@ -11,6 +11,7 @@ import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.UncheckedIOException;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 import java.util.stream.Collectors;
@@ -47,7 +48,8 @@ class ArgumentsTest extends SimpleScenarioTest<ArgumentsTest.State> {
                 .and().expected_required_argument_$_that_has_an_optional_value(ArgumentKey.WORST)
                 .and().expected_required_argument_$_that_has_no_value(ArgumentKey.TOPPING)
                 .and().expected_optional_argument_$_that_has_no_value(ArgumentKey.SAUCE)
-                .and().the_display_value_is_$(getText("expected-usage-happy-flow.txt"));
+                .and().the_display_value_is_$(getText("expected-usage-happy-flow.txt"))
+                .and().the_usage_is_$(getText("expected-usage-columns-happy-flow.txt"));
         when().command_line_arguments_$_are_parsed(ImmutableList.of("-k", "edammer", "-w", "knack", "-t"));
         then().$_arguments_were_found(3)
                 .and().$_errors_were_found(0)
@@ -56,6 +58,34 @@ class ArgumentsTest extends SimpleScenarioTest<ArgumentsTest.State> {
                 .and().an_argument_with_key_$_and_no_value_is_found(ArgumentKey.TOPPING);
     }
 
+    @Test
+    void long_keys_are_recognized() {
+        given().expected_required_argument_$_that_has_a_required_value(ArgumentKey.KAAS)
+                .and().expected_required_argument_$_that_has_an_optional_value(ArgumentKey.WORST)
+                .and().expected_optional_argument_$_that_has_no_value(ArgumentKey.SAUCE);
+        when().command_line_arguments_$_are_parsed(ImmutableList.of("--kaas", "gouda", "unknown", "--worst", "--sauce"));
+        then().$_arguments_were_found(3)
+                .and().$_errors_were_found(0)
+                .and().an_argument_with_key_$_and_required_value_$_is_found(ArgumentKey.KAAS, "gouda")
+                .and().an_argument_with_key_$_and_no_value_is_found(ArgumentKey.WORST)
+                .and().an_argument_with_key_$_and_no_value_is_found(ArgumentKey.SAUCE);
+    }
+
+    @Test
+    void attached_values_and_bundled_short_keys_are_recognized() {
+        given().expected_required_argument_$_that_has_a_required_value(ArgumentKey.KAAS)
+                .and().expected_required_argument_$_that_has_an_optional_value(ArgumentKey.WORST)
+                .and().expected_required_argument_$_that_has_no_value(ArgumentKey.TOPPING)
+                .and().expected_optional_argument_$_that_has_no_value(ArgumentKey.SAUCE);
+        when().command_line_arguments_$_are_parsed(ImmutableList.of("--kaas=-5", "-tsw", "knack"));
+        then().$_arguments_were_found(4)
+                .and().$_errors_were_found(0)
+                .and().an_argument_with_key_$_and_required_value_$_is_found(ArgumentKey.KAAS, "-5")
+                .and().an_argument_with_key_$_and_optional_value_$_is_found(ArgumentKey.WORST, "knack")
+                .and().an_argument_with_key_$_and_no_value_is_found(ArgumentKey.TOPPING)
+                .and().an_argument_with_key_$_and_no_value_is_found(ArgumentKey.SAUCE);
+    }
+
     @Test
     void error_required_argument_missing() {
         given().expected_required_argument_$_that_has_a_required_value(ArgumentKey.KAAS)
@@ -67,7 +97,97 @@ class ArgumentsTest extends SimpleScenarioTest<ArgumentsTest.State> {
                 .and().an_argument_with_key_$_and_required_value_$_is_found(ArgumentKey.KAAS, "edammer")
                 .and().an_argument_with_key_$_and_optional_value_$_is_found(ArgumentKey.WORST, "knack")
                 .and().an_argument_with_key_$_and_with_error_message_$_is_found(ArgumentKey.TOPPING, "Missing argument -t or --topping; required: yes; no value is expected; description: 'null'")
-                .and().the_errors_display_value_is_$(getText("expected-usage-error-1.txt"));
+                .and().the_errors_display_value_is_$(getText("expected-usage-error-1.txt"))
+                .and().the_written_errors_are_$(getText("expected-usage-error-1.txt"));
+    }
+
+    @Test
+    void error_unknown_argument_with_suggestions() {
+        given().expected_required_argument_$_that_has_a_required_value(ArgumentKey.KAAS)
+                .and().expected_optional_argument_$_that_has_no_value(ArgumentKey.TOPPING);
+        when().command_line_arguments_$_are_parsed(ImmutableList.of("-k", "edammer", "--kaaz", "gouda", "-kaas", "--toping", "-x"));
+        then().$_arguments_were_found(1)
+                .and().the_errors_display_value_is_$("Unknown argument --kaaz; did you mean --kaas?" + System.lineSeparator()
+                        + "Unknown argument -kaas; did you mean --kaas?" + System.lineSeparator()
+                        + "Unknown argument --toping; did you mean --topping?" + System.lineSeparator()
+                        + "Unknown argument -x");
+    }
+
+    @Test
+    void error_rules_between_arguments_violated() {
+        given().expected_optional_argument_$_that_has_no_value(ArgumentKey.KAAS)
+                .and().expected_optional_argument_$_that_has_no_value(ArgumentKey.WORST)
+                .and().expected_optional_argument_$_that_has_no_value(ArgumentKey.TOPPING)
+                .and().expected_optional_argument_$_that_has_no_value(ArgumentKey.SAUCE)
+                .and().arguments_$_and_$_are_mutually_exclusive(ArgumentKey.KAAS, ArgumentKey.WORST)
+                .and().argument_$_requires_$(ArgumentKey.TOPPING, ArgumentKey.SAUCE)
+                .and().at_least_one_of_$_and_$_is_required(ArgumentKey.SAUCE, ArgumentKey.WORST);
+        when().command_line_arguments_$_are_parsed(ImmutableList.of("-k", "-t", "-w"));
+        then().$_errors_were_found(2)
+                .and().the_errors_display_value_is_$("Conflicting arguments: --kaas and --worst can not be combined" + System.lineSeparator()
+                        + "Missing arguments: --topping requires --sauce");
+    }
+
+    @Test
+    void error_at_least_one_of_arguments_missing() {
+        given().expected_optional_argument_$_that_has_no_value(ArgumentKey.KAAS)
+                .and().expected_optional_argument_$_that_has_no_value(ArgumentKey.WORST)
+                .and().expected_optional_argument_$_that_has_no_value(ArgumentKey.SAUCE)
+                .and().at_least_one_of_$_and_$_is_required(ArgumentKey.SAUCE, ArgumentKey.WORST);
+        when().command_line_arguments_$_are_parsed(ImmutableList.of("-k"));
+        then().$_errors_were_found(1)
+                .and().the_errors_display_value_is_$("Missing arguments: one of --sauce or --worst is required");
+    }
+
+    @Test
+    void arguments_and_errors_are_reported_to_a_visitor() {
+        given().expected_required_argument_$_that_has_a_required_value(ArgumentKey.KAAS)
+                .and().expected_required_argument_$_that_has_an_optional_value(ArgumentKey.WORST)
+                .and().expected_required_argument_$_that_has_no_value(ArgumentKey.TOPPING);
+        when().command_line_arguments_$_are_visited(ImmutableList.of("-w", "-k", "edammer"));
+        then().the_visitor_received_$(ImmutableList.of("WORST", "KAAS=edammer", "TOPPING: MISSING_ARGUMENT"));
+    }
+
+    @Test
+    void typed_values_are_converted_while_parsing() {
+        given().expected_optional_argument_$_that_has_a_value_of_format_$(ArgumentKey.KAAS, Argument.ValueFormat.INT)
+                .and().expected_optional_argument_$_that_has_a_value_of_format_$(ArgumentKey.WORST, Argument.ValueFormat.DOUBLE)
+                .and().expected_optional_argument_$_that_has_a_value_of_format_$(ArgumentKey.TOPPING, Argument.ValueFormat.LONG);
+        when().command_line_arguments_$_are_parsed(ImmutableList.of("-k", "42", "-w", "1.5", "-t", "12345678901"));
+        then().$_errors_were_found(0)
+                .and().the_int_value_of_$_is_$(ArgumentKey.KAAS, 42)
+                .and().the_double_value_of_$_is_$(ArgumentKey.WORST, 1.5)
+                .and().the_long_value_of_$_is_$(ArgumentKey.TOPPING, 12345678901L);
+    }
+
+    @Test
+    void error_typed_value_invalid() {
+        given().expected_optional_argument_$_that_has_a_value_of_format_$(ArgumentKey.KAAS, Argument.ValueFormat.INT);
+        when().command_line_arguments_$_are_parsed(ImmutableList.of("-k", "edammer"));
+        then().$_errors_were_found(1)
+                .and().an_argument_with_key_$_and_with_error_message_$_is_found(ArgumentKey.KAAS, "Invalid argument value -k or --kaas; required: no; a value is required (integer); description: 'null'");
+    }
+
+    @Test
+    void all_values_of_a_multi_valued_argument_are_kept() {
+        given().expected_multi_valued_argument_$(ArgumentKey.TOPPING)
+                .and().expected_required_argument_$_that_has_a_required_value(ArgumentKey.KAAS);
+        when().command_line_arguments_$_are_parsed(ImmutableList.of("-t", "ui", "-k", "edammer", "--topping", "tomaat", "--topping=ei"));
+        then().$_arguments_were_found(2)
+                .and().$_errors_were_found(0)
+                .and().the_values_of_$_are_$(ArgumentKey.TOPPING, ImmutableList.of("ui", "tomaat", "ei"))
+                .and().the_values_of_$_are_$(ArgumentKey.KAAS, ImmutableList.of("edammer"));
+    }
+
+    @Test
+    void positional_arguments_and_everything_after_the_end_of_options_are_kept() {
+        given().expected_required_argument_$_that_has_a_required_value(ArgumentKey.KAAS)
+                .and().expected_optional_argument_$_that_has_no_value(ArgumentKey.SAUCE);
+        when().command_line_arguments_$_are_parsed(ImmutableList.of("brood.txt", "-k", "edammer", "-", "-s", "--", "--kaas", "boter.txt"));
+        then().$_arguments_were_found(2)
+                .and().$_errors_were_found(0)
+                .and().an_argument_with_key_$_and_required_value_$_is_found(ArgumentKey.KAAS, "edammer")
+                .and().the_positional_arguments_are_$(ImmutableList.of("brood.txt", "-", "--kaas", "boter.txt"));
     }
 
     private String getText(String resourceName) {
@@ -106,6 +226,7 @@ class ArgumentsTest extends SimpleScenarioTest<ArgumentsTest.State> {
     static class State extends Stage<State> {
         private final Arguments.Builder argumentsBuilder = Arguments.builder();
         private Arguments arguments;
+        private final List<String> visited = new ArrayList<>();
 
 
         State expected_required_argument_$_that_has_a_required_value(@Quoted ArgumentKey key) {
@@ -128,6 +249,31 @@ class ArgumentsTest extends SimpleScenarioTest<ArgumentsTest.State> {
             return self();
         }
 
+        State expected_optional_argument_$_that_has_a_value_of_format_$(@Quoted ArgumentKey key, Argument.ValueFormat valueFormat) {
+            argumentsBuilder.add(Argument.builder().setRequired(false).setKey(key).setValueRequired().setValueFormat(valueFormat).build());
+            return self();
+        }
+
+        State expected_multi_valued_argument_$(@Quoted ArgumentKey key) {
+            argumentsBuilder.add(Argument.builder().setRequired(false).setKey(key).setValueRequired().setMultiValued(true).build());
+            return self();
+        }
+
+        State arguments_$_and_$_are_mutually_exclusive(@Quoted ArgumentKey key, @Quoted ArgumentKey otherKey) {
+            argumentsBuilder.addMutuallyExclusive(key, otherKey);
+            return self();
+        }
+
+        State argument_$_requires_$(@Quoted ArgumentKey key, @Quoted ArgumentKey requiredKey) {
+            argumentsBuilder.addRequires(key, requiredKey);
+            return self();
+        }
+
+        State at_least_one_of_$_and_$_is_required(@Quoted ArgumentKey key, @Quoted ArgumentKey otherKey) {
+            argumentsBuilder.addAtLeastOneOf(key, otherKey);
+            return self();
+        }
+
         State command_line_arguments_$_are_parsed(@Quoted List<String> commandLineArguments) {
             String[] args = commandLineArguments.toArray(new String[0]);
             Arguments unparsedArguments = argumentsBuilder.build();
@@ -137,6 +283,31 @@ class ArgumentsTest extends SimpleScenarioTest<ArgumentsTest.State> {
             return self();
         }
 
+        State command_line_arguments_$_are_visited(@Quoted List<String> commandLineArguments) {
+            argumentsBuilder.build().parse(commandLineArguments.stream(), new ArgumentVisitor() {
+                @Override
+                public void onArgument(Key key, String value) {
+                    visited.add(value == null ? key.toString() : key + "=" + value);
+                }
+
+                @Override
+                public void onError(Key key, Argument.ArgumentError.Type type) {
+                    visited.add(key + ": " + type);
+                }
+            });
+            return self();
+        }
+
+        State the_positional_arguments_are_$(@Quoted List<String> expectedPositionals) {
+            assertThat(arguments.getPositionals()).isEqualTo(expectedPositionals);
+            return self();
+        }
+
+        State the_visitor_received_$(@Quoted List<String> expectedEvents) {
+            assertThat(visited).isEqualTo(expectedEvents);
+            return self();
+        }
+
         State $_errors_were_found(int expectedErrorCount) {
             assertThat(arguments.getArgumentsWithErrors().size()).isEqualTo(expectedErrorCount);
             return self();
@@ -171,6 +342,26 @@ class ArgumentsTest extends SimpleScenarioTest<ArgumentsTest.State> {
             return self();
         }
 
+        State the_int_value_of_$_is_$(@Quoted ArgumentKey key, int expectedValue) {
+            assertThat(arguments.getInt(key)).isEqualTo(expectedValue);
+            return self();
+        }
+
+        State the_long_value_of_$_is_$(@Quoted ArgumentKey key, long expectedValue) {
+            assertThat(arguments.getLong(key)).isEqualTo(expectedValue);
+            return self();
+        }
+
+        State the_double_value_of_$_is_$(@Quoted ArgumentKey key, double expectedValue) {
+            assertThat(arguments.getDouble(key)).isEqualTo(expectedValue);
+            return self();
+        }
+
+        State the_values_of_$_are_$(@Quoted ArgumentKey key, @Quoted List<String> expectedValues) {
+            assertThat(arguments.getValues(key)).isEqualTo(expectedValues);
+            return self();
+        }
+
         State $_arguments_were_found(int expectedArgumentsCount) {
             assertThat(arguments.get().size()).isEqualTo(expectedArgumentsCount);
             return self();
@@ -185,5 +376,27 @@ class ArgumentsTest extends SimpleScenarioTest<ArgumentsTest.State> {
             assertThat(arguments.errorsDisplayValue()).isEqualTo(expectedDisplayValue);
             return self();
         }
+
+        State the_usage_is_$(@Quoted String expectedUsage) {
+            StringBuilder usage = new StringBuilder();
+            try {
+                argumentsBuilder.build().writeUsage(usage);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            assertThat(usage.toString()).isEqualTo(expectedUsage + System.lineSeparator());
+            return self();
+        }
+
+        State the_written_errors_are_$(@Quoted String expectedErrors) {
+            StringBuilder errors = new StringBuilder();
+            try {
+                arguments.writeErrors(errors);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            assertThat(errors.toString()).isEqualTo(expectedErrors + System.lineSeparator());
+            return self();
+        }
     }
 }
@@ -0,0 +1,57 @@
+package io.github.gerardpi.clargs;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BkTreeTest {
+    @Test
+    void distance_counts_insertions_deletions_and_substitutions() {
+        assertThat(BkTree.distance("--kaas", "--kaas")).isZero();
+        assertThat(BkTree.distance("--kaaz", "--kaas")).isEqualTo(1);
+        assertThat(BkTree.distance("-kaas", "--kaas")).isEqualTo(1);
+        assertThat(BkTree.distance("--toping", "--topping")).isEqualTo(1);
+        assertThat(BkTree.distance("kitten", "sitting")).isEqualTo(3);
+        assertThat(BkTree.distance("", "abc")).isEqualTo(3);
+    }
+
+    @Test
+    void search_finds_the_same_words_as_comparing_every_word() {
+        Random random = new Random(42);
+        List<String> words = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            words.add(randomWord(random));
+        }
+        BkTree tree = BkTree.build(words);
+        for (int i = 0; i < 200; i++) {
+            String term = randomWord(random);
+            List<String> expected = new ArrayList<>();
+            for (int distance = 0; distance <= 2; distance++) {
+                for (String word : words) {
+                    if (BkTree.distance(term, word) == distance && !expected.contains(word)) {
+                        expected.add(word);
+                    }
+                }
+            }
+            assertThat(tree.search(term, 2)).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    void empty_tree_finds_nothing() {
+        assertThat(BkTree.build(Arrays.asList()).search("--kaas", 2)).isEmpty();
+    }
+
+    private static String randomWord(Random random) {
+        char[] word = new char[3 + random.nextInt(5)];
+        for (int i = 0; i < word.length; i++) {
+            word[i] = (char) ('a' + random.nextInt(6));
+        }
+        return "--" + new String(word);
+    }
+}
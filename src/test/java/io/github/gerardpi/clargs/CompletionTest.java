@@ -0,0 +1,81 @@
+package io.github.gerardpi.clargs;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CompletionTest {
+    private static final Parser PARSER = Arguments.builder()
+            .add(Argument.builder().setKey(ArgumentsTest.ArgumentKey.KAAS).setValueRequired().setDescription("De kaas: 'belegen'").build())
+            .add(Argument.builder().setKey(ArgumentsTest.ArgumentKey.WORST).setValueRequired().setValueFormat(Argument.ValueFormat.INT).build())
+            .add(Argument.builder().setKey(ArgumentsTest.ArgumentKey.TOPPING).setValueOptional().setMultiValued(true).build())
+            .add(Argument.builder().setKey(ArgumentsTest.ArgumentKey.SAUCE).build())
+            .buildParser();
+
+    @Test
+    void keys_are_completed_from_a_prefix() {
+        assertThat(PARSER.complete("--")).containsExactly("--kaas", "--sauce", "--topping", "--worst");
+        assertThat(PARSER.complete("--to")).containsExactly("--topping");
+        assertThat(PARSER.complete("-")).containsExactly("--kaas", "--sauce", "--topping", "--worst", "-k", "-s", "-t", "-w");
+        assertThat(PARSER.complete("--x")).isEmpty();
+    }
+
+    @Test
+    void completion_requests_are_answered_without_parsing() throws IOException {
+        StringBuilder out = new StringBuilder();
+        assertThat(Completion.handle(new String[]{"-k", "edammer"}, PARSER, out)).isFalse();
+        assertThat(Completion.handle(new String[]{Completion.REQUEST, "-s", "--w"}, PARSER, out)).isTrue();
+        assertThat(out.toString()).isEqualTo("--worst\n");
+
+        out.setLength(0);
+        assertThat(Completion.handle(new String[]{Completion.REQUEST, "--kaas", ""}, PARSER, out)).isTrue();
+        assertThat(out.toString()).isEmpty();
+    }
+
+    @Test
+    void bash_script_completes_keys_and_values_by_value_type() {
+        String script = Completion.bashScript("cheese-tool", PARSER);
+        assertThat(script)
+                .contains("local options=\"-k --kaas -w --worst -t --topping -s --sauce\"")
+                .contains("        -k|--kaas)\n            COMPREPLY=($(compgen -f -- \"$cur\"))\n")
+                .contains("        -w|--worst)\n            COMPREPLY=()\n")
+                .contains("        -t|--topping)\n            COMPREPLY=($(compgen -f -W \"$options\" -- \"$cur\"))\n")
+                .doesNotContain("-s|--sauce)")
+                .endsWith("complete -F _cheese_tool_completion cheese-tool\n");
+    }
+
+    @Test
+    void zsh_script_describes_keys_and_values() {
+        assertThat(Completion.zshScript("cheese-tool", PARSER)).isEqualTo("#compdef cheese-tool\n"
+                + "# zsh completion for cheese-tool, generated by clargs\n"
+                + "_arguments \\\n"
+                + "    '(-k --kaas)'{-k,--kaas}'[De kaas\\: '\\''belegen'\\'']:text:_files' \\\n"
+                + "    '(-w --worst)'{-w,--worst}':integer: ' \\\n"
+                + "    '*'{-t,--topping}'::text:_files' \\\n"
+                + "    '(-s --sauce)'{-s,--sauce}''\n");
+    }
+
+    @Test
+    void zsh_script_uses_no_braces_for_a_single_key() {
+        Key dryRun = new Key() {
+            @Override
+            public String getShortKey() {
+                return null;
+            }
+
+            @Override
+            public String getLongKey() {
+                return "dry-run";
+            }
+        };
+        Parser parser = Arguments.builder()
+                .add(Argument.builder().setKey(dryRun).setDescription("Only show").build())
+                .add(Argument.builder().setKey(ArgumentsTest.ArgumentKey.TOPPING).setValueRequired().setMultiValued(true).build())
+                .buildParser();
+        assertThat(Completion.zshScript("cheese-tool", parser)).endsWith("_arguments \\\n"
+                + "    '(--dry-run)--dry-run[Only show]' \\\n"
+                + "    '*'{-t,--topping}':text:_files'\n");
+    }
+}
@@ -0,0 +1,89 @@
+package io.github.gerardpi.clargs;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ParseSessionTest {
+    private final Parser parser = Arguments.builder()
+            .add(Argument.builder().setKey(ArgumentsTest.ArgumentKey.KAAS).setRequired(true).setValueRequired().build())
+            .add(Argument.builder().setKey(ArgumentsTest.ArgumentKey.WORST).setValueRequired().setValueFormat(Argument.ValueFormat.INT).build())
+            .add(Argument.builder().setKey(ArgumentsTest.ArgumentKey.TOPPING).setValueRequired().setMultiValued(true).build())
+            .add(Argument.builder().setKey(ArgumentsTest.ArgumentKey.SAUCE).build())
+            .addRequires(ArgumentsTest.ArgumentKey.SAUCE, ArgumentsTest.ArgumentKey.WORST)
+            .buildParser();
+
+    @Test
+    void every_edit_gives_the_same_arguments_as_parsing_from_scratch() {
+        ParseSession session = parser.startSession();
+        String line = "brood -t ui --worst 3 -t tomaat -k edammer -s -- -t ei";
+        for (int end = 0; end <= line.length(); end++) {
+            assertSameAsParsed(session, tokens(line.substring(0, end)));
+        }
+        assertSameAsParsed(session, tokens("brood -t ui --worst drie -t tomaat -k edammer -s -- -t ei"));
+        assertSameAsParsed(session, tokens("-t ui -t tomaat -s"));
+        assertSameAsParsed(session, tokens("-k gouda -t ui -t tomaat -s"));
+        assertSameAsParsed(session, tokens(""));
+    }
+
+    @Test
+    void only_tokens_from_the_edit_on_are_parsed_again() {
+        ParseSession session = parser.startSession();
+        session.parse(tokens("-k edammer -t ui -t tomaat -w"));
+        assertThat(session.getFirstParsedToken()).isZero();
+
+        session.parse(tokens("-k edammer -t ui -t tomaat -w 3"));
+        assertThat(session.getFirstParsedToken()).isEqualTo(6);
+        session.parse(tokens("-k edammer -t ui -t ei -w 3"));
+        assertThat(session.getFirstParsedToken()).isEqualTo(4);
+        session.parse(tokens("-k edammer -t ui -t ei -w 3"));
+        assertThat(session.getFirstParsedToken()).isEqualTo(8);
+    }
+
+    @Test
+    void errors_are_reported_as_changes() {
+        ParseSession session = parser.startSession();
+        session.parse(tokens("-s"));
+        assertThat(session.getAddedErrors()).extracting(Argument.ArgumentError::getType)
+                .containsExactly(Argument.ArgumentError.Type.MISSING_ARGUMENT, Argument.ArgumentError.Type.MISSING_REQUIRED_ARGUMENTS);
+        assertThat(session.getRemovedErrors()).isEmpty();
+
+        session.parse(tokens("-s -w -k"));
+        assertThat(session.getAddedErrors()).extracting(Argument.ArgumentError::getType)
+                .containsExactly(Argument.ArgumentError.Type.MISSING_ARGUMENT_VALUE);
+        assertThat(session.getRemovedErrors()).extracting(Argument.ArgumentError::getType)
+                .containsExactlyInAnyOrder(Argument.ArgumentError.Type.MISSING_ARGUMENT, Argument.ArgumentError.Type.MISSING_REQUIRED_ARGUMENTS);
+
+        session.parse(tokens("-s -w 3 -k edammer"));
+        assertThat(session.getAddedErrors()).isEmpty();
+        assertThat(session.getRemovedErrors()).extracting(Argument.ArgumentError::getType)
+                .containsExactly(Argument.ArgumentError.Type.MISSING_ARGUMENT_VALUE);
+    }
+
+    @Test
+    void tokens_after_the_end_of_options_are_not_copied_once_earlier_positionals_are_edited_away() {
+        ParseSession session = parser.startSession();
+        assertThat(session.parse(tokens("brood -k edammer -- ui.txt")).getPositionals()).containsExactly("brood", "ui.txt");
+
+        Arguments arguments = session.parse(tokens("-k edammer -- ui.txt"));
+        assertThat(arguments.getPositionals()).containsExactly("ui.txt").isNotInstanceOf(ValueList.class);
+    }
+
+    private void assertSameAsParsed(ParseSession session, String[] args) {
+        Arguments expected = parser.parse(args);
+        Arguments actual = session.parse(args);
+        assertThat(actual.toString()).as(Arrays.toString(args)).isEqualTo(expected.toString());
+        assertThat(actual.errorsDisplayValue()).isEqualTo(expected.errorsDisplayValue());
+        assertThat(actual.getValues(ArgumentsTest.ArgumentKey.TOPPING)).isEqualTo(expected.getValues(ArgumentsTest.ArgumentKey.TOPPING));
+        assertThat(actual.getPositionals()).isEqualTo(expected.getPositionals());
+        for (ArgumentsTest.ArgumentKey key : ArgumentsTest.ArgumentKey.values()) {
+            assertThat(actual.getValue(key)).isEqualTo(expected.getValue(key));
+        }
+    }
+
+    private static String[] tokens(String line) {
+        return line.isEmpty() ? new String[0] : line.split(" ");
+    }
+}
@@ -0,0 +1,258 @@
+package io.github.gerardpi.clargs;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+class ParserTest {
+    private static final Parser PARSER = Arguments.builder()
+            .add(Argument.builder().setKey(ArgumentsTest.ArgumentKey.KAAS).setRequired(true).setValueRequired().build())
+            .add(Argument.builder().setKey(ArgumentsTest.ArgumentKey.WORST).setValueRequired().setValueFormat(Argument.ValueFormat.INT).build())
+            .buildParser();
+
+    @Test
+    void concurrent_parses_share_one_parser() throws InterruptedException, ExecutionException {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Arguments>> results = new ArrayList<>();
+            for (int i = 0; i < 1000; i++) {
+                String[] args = {"-k", "kaas" + i, "--worst", Integer.toString(i)};
+                results.add(executor.submit(() -> PARSER.parse(args)));
+            }
+            for (int i = 0; i < results.size(); i++) {
+                Arguments arguments = results.get(i).get();
+                assertThat(arguments.hasErrors()).isFalse();
+                assertThat(arguments.getRequiredValue(ArgumentsTest.ArgumentKey.KAAS)).isEqualTo("kaas" + i);
+                assertThat(arguments.getInt(ArgumentsTest.ArgumentKey.WORST)).isEqualTo(i);
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void batches_are_parsed_in_order_with_shared_values() {
+        List<String[]> commandLines = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            commandLines.add(new String[]{"-k", new String("edammer"), "-w", Integer.toString(i)});
+        }
+        List<Arguments> results = PARSER.parseAll(commandLines, 4);
+        assertThat(results).hasSize(commandLines.size());
+        for (int i = 0; i < results.size(); i++) {
+            assertThat(results.get(i).getInt(ArgumentsTest.ArgumentKey.WORST)).isEqualTo(i);
+            assertThat(results.get(i).getRequiredValue(ArgumentsTest.ArgumentKey.KAAS))
+                    .isSameAs(results.get(0).getRequiredValue(ArgumentsTest.ArgumentKey.KAAS));
+        }
+    }
+
+    @Test
+    void parameters_are_copied_when_compiling() {
+        List<Argument> parameters = new ArrayList<>();
+        parameters.add(Argument.builder().setKey(ArgumentsTest.ArgumentKey.TOPPING).build());
+        Parser parser = Parser.create(parameters);
+        parameters.clear();
+        assertThat(parser.parse(new String[]{"-t"}).hasArgument(ArgumentsTest.ArgumentKey.TOPPING)).isTrue();
+    }
+
+    @Test
+    void arguments_are_created_from_the_parse_result_once() {
+        Arguments arguments = PARSER.parse(new String[]{"-k", "edammer", "-w", "vijf"});
+        assertThat(arguments.hasErrors()).isTrue();
+        assertThat(arguments.getRequiredValue(ArgumentsTest.ArgumentKey.KAAS)).isEqualTo("edammer");
+        Argument kaas = arguments.getRequiredArgument(ArgumentsTest.ArgumentKey.KAAS);
+        assertThat(arguments.get()).containsExactly(kaas);
+        assertThat(arguments.getArgumentsWithErrors()).extracting(argument -> argument.getError().getType())
+                .containsExactly(Argument.ArgumentError.Type.INVALID_ARGUMENT_VALUE);
+    }
+
+    @Test
+    void parse_metrics_are_reported_to_the_listener() {
+        ParseMetrics metrics = new ParseMetrics();
+        Parser parser = Arguments.builder()
+                .add(Argument.builder().setKey(ArgumentsTest.ArgumentKey.KAAS).setRequired(true).setValueRequired().build())
+                .add(Argument.builder().setKey(ArgumentsTest.ArgumentKey.WORST).setValueRequired().setValueFormat(Argument.ValueFormat.INT).build())
+                .add(Argument.builder().setKey(ArgumentsTest.ArgumentKey.TOPPING).setRequired(true).build())
+                .setParseListener(metrics)
+                .buildParser();
+        parser.parse(new String[]{"-k", "edammer", "--worst", "veel", "--unknown", "stray", "-k", "gouda"});
+        parser.parse(new String[]{"-t", "--", "ui.txt", "ei.txt"});
+
+        assertThat(metrics.getParseCount()).isEqualTo(2);
+        assertThat(metrics.getTokenCount()).isEqualTo(12);
+        assertThat(metrics.getMatchCount(ArgumentsTest.ArgumentKey.KAAS)).isEqualTo(2);
+        assertThat(metrics.getMatchCount(ArgumentsTest.ArgumentKey.WORST)).isEqualTo(1);
+        assertThat(metrics.getMatchCount(ArgumentsTest.ArgumentKey.SAUCE)).isZero();
+        assertThat(metrics.getUnknownTokenCount()).isEqualTo(1);
+        assertThat(metrics.getPositionalCount()).isEqualTo(3);
+        assertThat(metrics.getErrorCount(Argument.ArgumentError.Type.INVALID_ARGUMENT_VALUE)).isEqualTo(1);
+        assertThat(metrics.getErrorCount(Argument.ArgumentError.Type.MISSING_ARGUMENT)).isEqualTo(2);
+        assertThat(metrics.getErrorCount(Argument.ArgumentError.Type.UNKNOWN_ARGUMENT)).isEqualTo(1);
+        assertThat(metrics.getMaxDurationNanos()).isPositive().isLessThanOrEqualTo(metrics.getTotalDurationNanos());
+    }
+
+    @Test
+    void a_multi_valued_key_is_one_argument_when_it_is_first_given_without_value() {
+        Arguments arguments = Arguments.builder()
+                .add(Argument.builder().setKey(ArgumentsTest.ArgumentKey.TOPPING).setValueOptional().setMultiValued(true).build())
+                .buildParser()
+                .parse(new String[]{"-t", "-t", "ui", "-t", "ei"});
+
+        assertThat(arguments.get()).hasSize(1);
+        assertThat(arguments.getValues(ArgumentsTest.ArgumentKey.TOPPING)).containsExactly("ui", "ei");
+    }
+
+    @Test
+    void single_value_accessors_skip_a_value_that_could_not_be_converted() {
+        Arguments arguments = Arguments.builder()
+                .add(Argument.builder().setKey(ArgumentsTest.ArgumentKey.TOPPING).setValueRequired().setMultiValued(true)
+                        .setValueFormat(Argument.ValueFormat.INT).build())
+                .buildParser()
+                .parse(new String[]{"-t", "x", "-t", "2"});
+
+        assertThat(arguments.hasErrors()).isTrue();
+        assertThat(arguments.getValues(ArgumentsTest.ArgumentKey.TOPPING)).containsExactly("2");
+        assertThat(arguments.getValue(ArgumentsTest.ArgumentKey.TOPPING)).hasValue("2");
+        assertThat(arguments.getRequiredValue(ArgumentsTest.ArgumentKey.TOPPING)).isEqualTo("2");
+        assertThat(arguments.getInt(ArgumentsTest.ArgumentKey.TOPPING, -1)).isEqualTo(2);
+        assertThat(arguments.getLong(ArgumentsTest.ArgumentKey.TOPPING)).isEqualTo(2L);
+    }
+
+    @Test
+    void an_unknown_key_is_reported_with_a_key_made_from_the_token() {
+        List<Key> unknownKeys = new ArrayList<>();
+        Arguments.builder()
+                .add(Argument.builder().setKey(ArgumentsTest.ArgumentKey.KAAS).setValueRequired().build())
+                .buildParser()
+                .parse(Arrays.asList("--kaaz=gouda", "-x").iterator(), new ArgumentVisitor() {
+                    @Override
+                    public void onArgument(Key key, String value) {
+                    }
+
+                    @Override
+                    public void onError(Key key, Argument.ArgumentError.Type type) {
+                        assertThat(type).isEqualTo(Argument.ArgumentError.Type.UNKNOWN_ARGUMENT);
+                        unknownKeys.add(key);
+                    }
+                });
+
+        assertThat(unknownKeys).extracting(Key::toString, Key::getShortKey, Key::getLongKey)
+                .containsExactly(tuple("--kaaz", null, "kaaz"), tuple("-x", "x", null));
+    }
+
+    @Test
+    void tokens_after_the_end_of_options_are_a_view_on_the_command_line() {
+        Parser parser = Arguments.builder()
+                .add(Argument.builder().setKey(ArgumentsTest.ArgumentKey.TOPPING).setValueOptional().build())
+                .buildParser();
+        String[] args = {"-t", "--", "ui.txt", "-t", "tomaat.txt"};
+        Arguments arguments = parser.parse(args);
+
+        assertThat(arguments.getValue(ArgumentsTest.ArgumentKey.TOPPING)).isEmpty();
+        assertThat(arguments.getPositionals()).containsExactly("ui.txt", "-t", "tomaat.txt");
+        assertThatThrownBy(() -> arguments.getPositionals().set(0, "kaas.txt")).isInstanceOf(UnsupportedOperationException.class);
+        // Not copied into the table, unlike the tokens taken from an iterator.
+        assertThat(arguments.getPositionals()).isNotInstanceOf(ValueList.class).isSameAs(arguments.getPositionals());
+        assertThat(parser.parse(Arrays.asList(args).iterator()).getPositionals())
+                .isInstanceOf(ValueList.class)
+                .containsExactly("ui.txt", "-t", "tomaat.txt");
+    }
+
+    @Test
+    void a_positional_argument_ends_the_options_when_enabled() {
+        Arguments.Builder builder = Arguments.builder()
+                .add(Argument.builder().setKey(ArgumentsTest.ArgumentKey.KAAS).setValueRequired().build())
+                .add(Argument.builder().setKey(ArgumentsTest.ArgumentKey.SAUCE).build());
+        String[] args = {"-s", "f1", "-k", "edammer", "f2"};
+
+        Arguments arguments = builder.setPositionalEndsOptions(true).buildParser().parse(args);
+        assertThat(arguments.hasErrors()).isFalse();
+        assertThat(arguments.hasArgument(ArgumentsTest.ArgumentKey.SAUCE)).isTrue();
+        assertThat(arguments.hasArgument(ArgumentsTest.ArgumentKey.KAAS)).isFalse();
+        assertThat(arguments.getPositionals()).containsExactly("f1", "-k", "edammer", "f2").isNotInstanceOf(ValueList.class);
+        assertThat(builder.buildParser().parse(Arrays.asList(args).iterator()).getPositionals())
+                .containsExactly("f1", "-k", "edammer", "f2");
+
+        arguments = builder.setPositionalEndsOptions(false).buildParser().parse(args);
+        assertThat(arguments.getRequiredValue(ArgumentsTest.ArgumentKey.KAAS)).isEqualTo("edammer");
+        assertThat(arguments.getPositionals()).containsExactly("f1", "f2");
+    }
+
+    @Test
+    void a_plain_token_after_a_key_that_expects_no_value_is_a_positional_argument() {
+        Parser parser = Arguments.builder()
+                .add(Argument.builder().setKey(ArgumentsTest.ArgumentKey.SAUCE).build())
+                .buildParser();
+        Arguments arguments = parser.parse(new String[]{"-s", "input.txt"});
+
+        assertThat(arguments.hasErrors()).isFalse();
+        assertThat(arguments.hasArgument(ArgumentsTest.ArgumentKey.SAUCE)).isTrue();
+        assertThat(arguments.getPositionals()).containsExactly("input.txt");
+    }
+
+    @Test
+    void the_description_of_a_violated_rule_is_not_a_value() {
+        Arguments arguments = Arguments.builder()
+                .add(Argument.builder().setKey(ArgumentsTest.ArgumentKey.KAAS).setValueRequired().build())
+                .add(Argument.builder().setKey(ArgumentsTest.ArgumentKey.WORST).setValueRequired().build())
+                .add(Argument.builder().setKey(ArgumentsTest.ArgumentKey.SAUCE).build())
+                .addAtLeastOneOf(ArgumentsTest.ArgumentKey.KAAS, ArgumentsTest.ArgumentKey.WORST)
+                .buildParser()
+                .parse(new String[]{"-s"});
+
+        assertThat(arguments.errorsDisplayValue()).isEqualTo("Missing arguments: one of --kaas or --worst is required");
+        assertThat(arguments.getValue(ArgumentsTest.ArgumentKey.KAAS)).isEmpty();
+        assertThat(arguments.getValues(ArgumentsTest.ArgumentKey.KAAS)).isEmpty();
+        assertThatThrownBy(() -> arguments.getRequiredValue(ArgumentsTest.ArgumentKey.KAAS)).isInstanceOf(NoSuchElementException.class);
+    }
+
+    @Test
+    void rules_apply_to_parameters_beyond_the_first_mask_word() {
+        List<Key> keys = new ArrayList<>();
+        Arguments.Builder builder = Arguments.builder();
+        for (int i = 0; i < 150; i++) {
+            Key key = new NumberedKey(i);
+            keys.add(key);
+            builder.add(Argument.builder().setKey(key).build());
+        }
+        Parser parser = builder
+                .addMutuallyExclusive(keys.get(3), keys.get(70), keys.get(140))
+                .addRequires(keys.get(100), keys.get(1), keys.get(149))
+                .buildParser();
+
+        assertThat(parser.parse(new String[]{"--p3", "--p100", "--p1", "--p149"}).hasErrors()).isFalse();
+        Arguments arguments = parser.parse(new String[]{"--p3", "--p140", "--p100", "--p1"});
+        assertThat(arguments.getArgumentsWithErrors()).extracting(argument -> argument.getError().getMessage()).containsExactly(
+                "Conflicting arguments: --p3, --p70 and --p140 can not be combined",
+                "Missing arguments: --p100 requires --p1 and --p149");
+        assertThat(arguments.getArgumentsWithErrors()).extracting(Argument::getKey).containsExactly(keys.get(140), keys.get(100));
+    }
+
+    private static final class NumberedKey implements Key {
+        private final int number;
+
+        NumberedKey(int number) {
+            this.number = number;
+        }
+
+        @Override
+        public String getShortKey() {
+            return "n" + number;
+        }
+
+        @Override
+        public String getLongKey() {
+            return "p" + number;
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package io.github.gerardpi.clargs;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks the cost of parsing one command line in a fresh JVM, as a short-lived command line tool does:
+ * no classes outside the JDK and clargs may be loaded, and the number of classes loaded must stay within the budget
+ * configured in the {@code pom.xml}. The time to the first parse is only checked with the {@code startup-timing} profile,
+ * as it depends on the load of the machine.
+ */
+class StartupBudgetTest {
+    private static final String[] JDK_PACKAGES = {"java.", "javax.", "jdk.", "sun.", "com.sun."};
+
+    @Test
+    void first_parse_stays_within_startup_budget() throws IOException, InterruptedException {
+        int loadedClassesBudget = Integer.getInteger("startup.budget.loadedClasses", 60);
+        String millisToFirstParseBudget = System.getProperty("startup.budget.millisToFirstParse", "");
+
+        ProbeRun baseline = run("baseline");
+        ProbeRun parse = run("parse");
+
+        assertThat(parse.classesOutsideJdkAndClargs).as("classes loaded outside the JDK and clargs").isEmpty();
+        assertThat(parse.loadedClasses - baseline.loadedClasses).as("classes loaded to parse a command line")
+                .isLessThanOrEqualTo(loadedClassesBudget);
+        if (!millisToFirstParseBudget.isEmpty()) {
+            assertThat(parse.millisToFirstParse).as("milliseconds to the first parse")
+                    .isLessThanOrEqualTo(Long.parseLong(millisToFirstParseBudget));
+        }
+    }
+
+    private static ProbeRun run(String mode) throws IOException, InterruptedException {
+        String javaExecutable = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+        String classPath = codeSource(Key.class) + File.pathSeparator + codeSource(StartupProbe.class);
+        Process process = new ProcessBuilder(Arrays.asList(javaExecutable, "-Xshare:auto", "-verbose:class",
+                "-cp", classPath, StartupProbe.class.getName(), mode))
+                .redirectErrorStream(true)
+                .start();
+        ProbeRun run = new ProbeRun();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                run.read(line);
+            }
+        }
+        assertThat(process.waitFor()).as("exit code of " + StartupProbe.class.getSimpleName()).isZero();
+        return run;
+    }
+
+    private static String codeSource(Class<?> type) {
+        return Paths.get(type.getProtectionDomain().getCodeSource().getLocation().getPath()).toString();
+    }
+
+    private static final class ProbeRun {
+        private int loadedClasses;
+        private long millisToFirstParse;
+        private final List<String> classesOutsideJdkAndClargs = new ArrayList<>();
+
+        /**
+         * Reads a line of {@code -verbose:class} output, in the format of Java 9 and later
+         * ({@code [info][class,load] java.lang.Object source: ...}) or of Java 8 ({@code [Loaded java.lang.Object from ...]}).
+         */
+        void read(String line) {
+            String className = null;
+            int unifiedLogging = line.indexOf("[class,load] ");
+            if (unifiedLogging >= 0) {
+                className = line.substring(unifiedLogging + "[class,load] ".length()).split(" ")[0];
+            } else if (line.startsWith("[Loaded ")) {
+                className = line.substring("[Loaded ".length()).split(" ")[0];
+            } else if (line.startsWith("millisToFirstParse=")) {
+                millisToFirstParse = Long.parseLong(line.substring("millisToFirstParse=".length()));
+            }
+            if (className != null) {
+                loadedClasses++;
+                if (!isJdkOrClargs(className)) {
+                    classesOutsideJdkAndClargs.add(className);
+                }
+            }
+        }
+
+        private static boolean isJdkOrClargs(String className) {
+            for (String jdkPackage : JDK_PACKAGES) {
+                if (className.startsWith(jdkPackage)) {
+                    return true;
+                }
+            }
+            return className.startsWith(Key.class.getPackage().getName() + ".");
+        }
+    }
+}
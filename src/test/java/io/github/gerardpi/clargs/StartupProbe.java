@@ -0,0 +1,52 @@
+package io.github.gerardpi.clargs;
+
+/**
+ * Run in a fresh JVM by {@link StartupBudgetTest}: parses one command line, as a short-lived command line tool would.
+ * With the argument {@code baseline} it does nothing, to measure what the JVM loads by itself.
+ */
+public final class StartupProbe {
+    private StartupProbe() {
+        // Entry point only
+    }
+
+    public static void main(String[] args) {
+        long start = System.nanoTime();
+        if (args.length > 0 && "baseline".equals(args[0])) {
+            return;
+        }
+        Arguments arguments = Arguments.builder()
+                .add(Argument.builder().setKey(ProbeKey.INPUT).setRequired(true).setValueRequired().build())
+                .add(Argument.builder().setKey(ProbeKey.COUNT).setValueRequired().setValueFormat(Argument.ValueFormat.INT).build())
+                .add(Argument.builder().setKey(ProbeKey.VERBOSE).build())
+                .build()
+                .parseArgs(new String[]{"--input", "file.txt", "-c", "3", "-v"});
+        if (arguments.hasErrors() || arguments.getInt(ProbeKey.COUNT) != 3) {
+            throw new IllegalStateException("Unexpected parse result " + arguments);
+        }
+        System.out.println("millisToFirstParse=" + (System.nanoTime() - start) / 1_000_000);
+    }
+
+    enum ProbeKey implements Key {
+        INPUT("i", "input"),
+        COUNT("c", "count"),
+        VERBOSE("v", "verbose");
+
+        private final String shortKey;
+        private final String longKey;
+
+        ProbeKey(String shortKey, String longKey) {
+            this.shortKey = shortKey;
+            this.longKey = longKey;
+        }
+
+        @Override
+        public String getShortKey() {
+            return shortKey;
+        }
+
+        @Override
+        public String getLongKey() {
+            return longKey;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package io.github.gerardpi.clargs;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SubcommandsTest {
+    private final AtomicInteger specsBuilt = new AtomicInteger();
+
+    private final Subcommands subcommands = Subcommands.builder()
+            .add("build", () -> spec(ArgumentsTest.ArgumentKey.KAAS))
+            .add("bundle", () -> spec(ArgumentsTest.ArgumentKey.WORST))
+            .add("test", () -> spec(ArgumentsTest.ArgumentKey.TOPPING))
+            .build();
+
+    private Arguments spec(ArgumentsTest.ArgumentKey key) {
+        specsBuilt.incrementAndGet();
+        return Arguments.builder().add(Argument.builder().setKey(key).setValueOptional().build()).build();
+    }
+
+    @Test
+    void only_the_invoked_subcommand_is_built() {
+        Optional<Subcommands.Invocation> invocation = subcommands.parseArgs(new String[]{"test", "-t", "ui"});
+        assertThat(invocation).isPresent();
+        assertThat(invocation.get().getName()).isEqualTo("test");
+        assertThat(invocation.get().getArguments().getValue(ArgumentsTest.ArgumentKey.TOPPING)).hasValue("ui");
+        subcommands.parseArgs(new String[]{"test"});
+        assertThat(specsBuilt).hasValue(1);
+        assertThat(subcommands.isLoaded("build")).isFalse();
+    }
+
+    @Test
+    void subcommands_are_resolved_by_unambiguous_prefix() {
+        assertThat(subcommands.resolve("bui")).hasValue("build");
+        assertThat(subcommands.resolve("bun")).hasValue("bundle");
+        assertThat(subcommands.resolve("t")).hasValue("test");
+        assertThat(subcommands.resolve("bu")).isEmpty();
+        assertThat(subcommands.resolve("deploy")).isEmpty();
+        assertThat(subcommands.parseArgs(new String[]{"b", "-k"})).isEmpty();
+        assertThat(subcommands.getNames()).containsExactly("build", "bundle", "test");
+    }
+
+    @Test
+    void an_empty_name_selects_no_subcommand_even_when_there_is_only_one() {
+        Subcommands single = Subcommands.builder()
+                .add("test", () -> spec(ArgumentsTest.ArgumentKey.TOPPING))
+                .build();
+        assertThat(single.resolve("")).isEmpty();
+        assertThat(single.parseArgs(new String[]{"", "-t"})).isEmpty();
+        assertThat(specsBuilt).hasValue(0);
+    }
+}
@@ -0,0 +1,45 @@
+package io.github.gerardpi.clargs;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UsageTest {
+    @Test
+    void a_key_with_one_form_is_shown_without_the_other() {
+        Arguments arguments = Arguments.builder()
+                .add(Argument.builder().setKey(OneFormKey.VERBOSE).setDescription("Tell more").build())
+                .add(Argument.builder().setKey(OneFormKey.QUIET).setDescription("Tell less").build())
+                .add(Argument.builder().setKey(ArgumentsTest.ArgumentKey.KAAS).setDescription("The cheese").build())
+                .build();
+
+        assertThat(Usage.render(arguments.getParser().getParameters()).split(System.lineSeparator())).containsExactly(
+                "--verbose   Tell more",
+                "-q          Tell less",
+                "-k, --kaas  The cheese");
+        assertThat(arguments.getParser().getParameters().get(1).displayValue()).startsWith("-q; required: no");
+    }
+
+    enum OneFormKey implements Key {
+        VERBOSE(null, "verbose"),
+        QUIET("q", null);
+
+        private final String shortKey;
+        private final String longKey;
+
+        OneFormKey(String shortKey, String longKey) {
+            this.shortKey = shortKey;
+            this.longKey = longKey;
+        }
+
+        @Override
+        public String getShortKey() {
+            return shortKey;
+        }
+
+        @Override
+        public String getLongKey() {
+            return longKey;
+        }
+    }
+}
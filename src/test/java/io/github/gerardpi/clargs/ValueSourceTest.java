@@ -0,0 +1,94 @@
+package io.github.gerardpi.clargs;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ValueSourceTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void absent_arguments_are_taken_from_value_sources_in_order() throws IOException {
+        Path file = tempDir.resolve("clargs.properties");
+        Files.write(file, "kaas=gouda\nworst=12\ntopping=true\n".getBytes(StandardCharsets.UTF_8));
+        Map<String, String> defaults = new HashMap<>();
+        defaults.put("kaas", "edammer");
+        defaults.put("sauce", "false");
+        Arguments arguments = Arguments.builder()
+                .add(Argument.builder().setKey(ArgumentsTest.ArgumentKey.KAAS).setRequired(true).setValueRequired().build())
+                .add(Argument.builder().setKey(ArgumentsTest.ArgumentKey.WORST).setRequired(true).setValueRequired().setValueFormat(Argument.ValueFormat.INT).build())
+                .add(Argument.builder().setKey(ArgumentsTest.ArgumentKey.TOPPING).setRequired(true).build())
+                .add(Argument.builder().setKey(ArgumentsTest.ArgumentKey.SAUCE).build())
+                .addValueSource(ValueSource.map("defaults", defaults))
+                .addValueSource(ValueSource.properties(file))
+                .build()
+                .parseArgs(new String[]{"--worst", "7"});
+
+        assertThat(arguments.hasErrors()).isFalse();
+        assertThat(arguments.getInt(ArgumentsTest.ArgumentKey.WORST)).isEqualTo(7);
+        assertThat(arguments.getValueSource(ArgumentsTest.ArgumentKey.WORST)).isEmpty();
+        assertThat(arguments.getRequiredValue(ArgumentsTest.ArgumentKey.KAAS)).isEqualTo("edammer");
+        assertThat(arguments.getValueSource(ArgumentsTest.ArgumentKey.KAAS).get().getName()).isEqualTo("defaults");
+        assertThat(arguments.hasArgument(ArgumentsTest.ArgumentKey.TOPPING)).isTrue();
+        assertThat(arguments.getValueSource(ArgumentsTest.ArgumentKey.TOPPING).get().getName()).isEqualTo("properties file " + file);
+        assertThat(arguments.hasArgument(ArgumentsTest.ArgumentKey.SAUCE)).isFalse();
+    }
+
+    @Test
+    void a_required_argument_is_missing_when_no_source_has_it() {
+        Arguments arguments = Arguments.builder()
+                .add(Argument.builder().setKey(ArgumentsTest.ArgumentKey.KAAS).setRequired(true).setValueRequired().build())
+                .addValueSource(ValueSource.properties(tempDir.resolve("does-not-exist.properties")))
+                .addValueSource(ValueSource.environment("CLARGS_TEST_"))
+                .build()
+                .parseArgs(new String[0]);
+
+        assertThat(arguments.getArgumentsWithErrors()).hasSize(1);
+        assertThat(arguments.getArgumentsWithErrors().get(0).getError().getType()).isEqualTo(Argument.ArgumentError.Type.MISSING_ARGUMENT);
+    }
+
+    @Test
+    void a_snapshot_is_read_once_and_only_for_absent_arguments() {
+        Map<String, String> values = new HashMap<>();
+        values.put("kaas", "edammer");
+        ValueSource source = ValueSource.map("values", values);
+        Parser parser = Arguments.builder()
+                .add(Argument.builder().setKey(ArgumentsTest.ArgumentKey.KAAS).setValueRequired().build())
+                .addValueSource(source)
+                .buildParser();
+
+        values.put("kaas", "gouda");
+        assertThat(parser.parse(new String[]{"-k", "leerdammer"}).getRequiredValue(ArgumentsTest.ArgumentKey.KAAS)).isEqualTo("leerdammer");
+        values.put("kaas", "boerenkaas");
+        assertThat(parser.parse(new String[0]).getRequiredValue(ArgumentsTest.ArgumentKey.KAAS)).isEqualTo("boerenkaas");
+        values.put("kaas", "brie");
+        assertThat(parser.parse(new String[0]).getRequiredValue(ArgumentsTest.ArgumentKey.KAAS)).isEqualTo("boerenkaas");
+    }
+
+    @Test
+    void a_parameter_without_a_long_key_is_not_looked_up() {
+        Map<String, String> values = new HashMap<>();
+        values.put("verbose", "true");
+        Parser parser = Arguments.builder()
+                .add(Argument.builder().setKey(UsageTest.OneFormKey.QUIET).setValueRequired().build())
+                .add(Argument.builder().setKey(UsageTest.OneFormKey.VERBOSE).build())
+                .addValueSource(ValueSource.environment("CLARGS_TEST_"))
+                .addValueSource(ValueSource.map("values", values))
+                .buildParser();
+
+        for (int i = 0; i < 2; i++) {
+            Arguments arguments = parser.parse(new String[0]);
+            assertThat(arguments.hasArgument(UsageTest.OneFormKey.QUIET)).isFalse();
+            assertThat(arguments.getValueSource(UsageTest.OneFormKey.VERBOSE).get().getName()).isEqualTo("values");
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package io.github.gerardpi.clargs.processor;
+
+import io.github.gerardpi.clargs.Argument;
+import io.github.gerardpi.clargs.Key;
+import io.github.gerardpi.clargs.Parser;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class ParserProcessorTest {
+    private static final String KEY_SOURCE = String.join("\n",
+            "package demo;",
+            "",
+            "import io.github.gerardpi.clargs.Argument;",
+            "import io.github.gerardpi.clargs.GenerateParser;",
+            "import io.github.gerardpi.clargs.Key;",
+            "import io.github.gerardpi.clargs.Parameter;",
+            "",
+            "@GenerateParser",
+            "public enum DemoKey implements Key {",
+            "    @Parameter(shortKey = \"k\", longKey = \"kaas\", required = true, valueType = Argument.ValueType.REQUIRED_VALUE)",
+            "    KAAS(\"k\", \"kaas\"),",
+            "    @Parameter(shortKey = \"c\", longKey = \"count\", valueType = Argument.ValueType.REQUIRED_VALUE, valueFormat = Argument.ValueFormat.INT)",
+            "    SLICE_COUNT(\"c\", \"count\"),",
+            "    @Parameter(shortKey = \"t\", longKey = \"topping\", required = true)",
+            "    TOPPING(\"t\", \"topping\");",
+            "",
+            "    private final String shortKey;",
+            "    private final String longKey;",
+            "",
+            "    DemoKey(String shortKey, String longKey) {",
+            "        this.shortKey = shortKey;",
+            "        this.longKey = longKey;",
+            "    }",
+            "",
+            "    public String getShortKey() { return shortKey; }",
+            "    public String getLongKey() { return longKey; }",
+            "}");
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void generated_parser_stores_values_in_typed_fields() throws Exception {
+        Class<?> parserClass = compile();
+        Object parser = parse(parserClass, "-k", "edammer", "--count=12", "-t");
+        assertThat(invoke(parser, "hasErrors")).isEqualTo(false);
+        assertThat(invoke(parser, "getKaas")).isEqualTo("edammer");
+        assertThat(invoke(parser, "hasSliceCount")).isEqualTo(true);
+        assertThat(invoke(parser, "getSliceCount")).isEqualTo(12);
+        assertThat(invoke(parser, "hasTopping")).isEqualTo(true);
+    }
+
+    @Test
+    void generated_parser_reports_the_same_errors_as_the_generic_parser() throws Exception {
+        Class<?> parserClass = compile();
+        Parser genericParser = Parser.create(Arrays.asList(
+                Argument.builder().setKey(GenericKey.KAAS).setRequired(true).setValueRequired().build(),
+                Argument.builder().setKey(GenericKey.SLICE_COUNT).setValueRequired().setValueFormat(Argument.ValueFormat.INT).build(),
+                Argument.builder().setKey(GenericKey.TOPPING).setRequired(true).build()));
+        List<String[]> commandLines = Arrays.asList(
+                new String[]{"--count", "many", "-k"},
+                new String[]{"-k", "-t"},
+                new String[]{"-k", "edammer", "-t", "stray"},
+                new String[]{"--topping=yes", "-k", "gouda"},
+                new String[]{"--zzzzzz", "-x", "-k", "edammer", "-t"},
+                new String[]{"-c", "-5", "-k", "edammer", "-t", "-c"},
+                new String[]{"--count=", "-t", "--kaas=", "-c", "1.5"},
+                new String[]{});
+        for (String[] commandLine : commandLines) {
+            @SuppressWarnings("unchecked")
+            List<Argument.ArgumentError> errors = (List<Argument.ArgumentError>) invoke(parse(parserClass, commandLine), "getErrors");
+            List<Argument.ArgumentError> genericErrors = genericParser.parse(commandLine).getArgumentsWithErrors().stream()
+                    .map(Argument::getError)
+                    .collect(Collectors.toList());
+            assertThat(errors).as(Arrays.toString(commandLine))
+                    .extracting(Argument.ArgumentError::getType, Argument.ArgumentError::getMessage)
+                    .isEqualTo(genericErrors.stream().map(error -> tuple(error.getType(), error.getMessage())).collect(Collectors.toList()));
+        }
+    }
+
+    @Test
+    void duplicate_keys_are_a_compile_error() throws IOException {
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        assertThat(compile(KEY_SOURCE.replace("shortKey = \"c\", longKey = \"count\"", "shortKey = \"k\", longKey = \"count\""), diagnostics)).isFalse();
+        assertThat(diagnostics.getDiagnostics())
+                .extracting(diagnostic -> diagnostic.getMessage(Locale.ROOT))
+                .containsExactly("Key -k is used by more than one parameter");
+    }
+
+    @Test
+    void names_that_clash_with_the_generated_parser_are_a_compile_error() throws IOException {
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        assertThat(compile(KEY_SOURCE.replace("SLICE_COUNT(", "ERRORS(").replace("TOPPING(", "NEW("), diagnostics)).isFalse();
+        assertThat(diagnostics.getDiagnostics())
+                .extracting(diagnostic -> diagnostic.getMessage(Locale.ROOT))
+                .containsExactly(
+                        "Parameter ERRORS gives the field name 'errors', which is already used in the generated parser",
+                        "Parameter NEW gives the field name 'new', which is not a valid Java name");
+    }
+
+    @Test
+    void a_parameter_named_like_a_local_variable_gets_its_value() throws Exception {
+        Class<?> parserClass = compile(KEY_SOURCE.replace("SLICE_COUNT(", "VALUE(").replace("TOPPING(", "I("));
+        Object parser = parse(parserClass, "-k", "edammer", "-c", "12", "-t");
+        assertThat(invoke(parser, "hasErrors")).isEqualTo(false);
+        assertThat(invoke(parser, "getValue")).isEqualTo(12);
+        assertThat(invoke(parser, "hasI")).isEqualTo(true);
+    }
+
+    private enum GenericKey implements Key {
+        KAAS("k", "kaas"),
+        SLICE_COUNT("c", "count"),
+        TOPPING("t", "topping");
+
+        private final String shortKey;
+        private final String longKey;
+
+        GenericKey(String shortKey, String longKey) {
+            this.shortKey = shortKey;
+            this.longKey = longKey;
+        }
+
+        @Override
+        public String getShortKey() {
+            return shortKey;
+        }
+
+        @Override
+        public String getLongKey() {
+            return longKey;
+        }
+    }
+
+    private Class<?> compile() throws IOException, ClassNotFoundException {
+        return compile(KEY_SOURCE);
+    }
+
+    private Class<?> compile(String keySource) throws IOException, ClassNotFoundException {
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        assertThat(compile(keySource, diagnostics)).as(diagnostics.getDiagnostics().toString()).isTrue();
+        URLClassLoader classLoader = new URLClassLoader(new URL[]{tempDir.resolve("classes").toUri().toURL()}, getClass().getClassLoader());
+        return classLoader.loadClass("demo.DemoKeyParser");
+    }
+
+    private boolean compile(String keySource, DiagnosticCollector<JavaFileObject> diagnostics) throws IOException {
+        Path sourceFile = tempDir.resolve("src/demo/DemoKey.java");
+        Files.createDirectories(sourceFile.getParent());
+        Files.write(sourceFile, keySource.getBytes(StandardCharsets.UTF_8));
+        Path classes = Files.createDirectories(tempDir.resolve("classes"));
+        String clargsClasses = Paths.get(Key.class.getProtectionDomain().getCodeSource().getLocation().getPath()).toString();
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null, StandardCharsets.UTF_8)) {
+            JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, diagnostics,
+                    Arrays.asList("-classpath", clargsClasses, "-d", classes.toString(), "-s", classes.toString()),
+                    null, fileManager.getJavaFileObjects(sourceFile.toFile()));
+            task.setProcessors(Arrays.asList(new ParserProcessor()));
+            return task.call();
+        }
+    }
+
+    private static Object parse(Class<?> parserClass, String... args) throws ReflectiveOperationException {
+        return parserClass.getMethod("parse", String[].class).invoke(null, (Object) args);
+    }
+
+    private static Object invoke(Object parser, String methodName) throws ReflectiveOperationException {
+        Method method = parser.getClass().getMethod(methodName);
+        return method.invoke(parser);
+    }
+}